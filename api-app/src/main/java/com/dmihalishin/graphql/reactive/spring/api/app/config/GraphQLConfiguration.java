@@ -2,9 +2,14 @@ package com.dmihalishin.graphql.reactive.spring.api.app.config;
 
 import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.CustomPropertyDataFetcher;
 import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLFetcher;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental.IncrementalExecutionStrategy;
 import graphql.GraphQL;
 import graphql.Scalars;
 import graphql.execution.SubscriptionExecutionStrategy;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.scalars.ExtendedScalars;
 import graphql.schema.DataFetcher;
 import graphql.schema.GraphQLSchema;
@@ -14,6 +19,7 @@ import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import graphql.schema.idl.WiringFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +31,8 @@ import org.springframework.util.StreamUtils;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
 
@@ -38,22 +46,41 @@ public class GraphQLConfiguration {
     @Autowired
     private Collection<GraphQLFetcher<?>> fetchers;
 
+    /**
+     * Create instrumentation that dispatches request scoped data loaders,
+     * so all fields of the same level share one batched load.
+     *
+     * @return {@code DataLoaderDispatcherInstrumentation}
+     */
+    @Bean
+    DataLoaderDispatcherInstrumentation dataLoaderDispatcherInstrumentation() {
+        return new DataLoaderDispatcherInstrumentation();
+    }
+
     /**
      * Create GraphQL engine from Schema.
      *
-     * @param resourceFile  schema file. Cannot be {@code null}
-     * @param resourceFiles type definitions schema files. Cannot be {@code null}
+     * @param resourceFile     schema file. Cannot be {@code null}
+     * @param resourceFiles    type definitions schema files. Cannot be {@code null}
+     * @param instrumentations all available instrumentations. Cannot be {@code null}
+     * @param documentProvider provider of parsed and validated documents. Cannot be {@code null}
      * @return {@code GraphQL} engine
      */
     @Bean
     GraphQL schema(
             @Value("classpath:schema.graphqls") final Resource resourceFile,
-            @Value("classpath*:/{filename:[a-z\\-]+-model}.graphqls") final Resource[] resourceFiles
+            @Value("classpath*:/{filename:[a-z\\-]+-model}.graphqls") final Resource[] resourceFiles,
+            final ObjectProvider<Instrumentation> instrumentations,
+            final PreparsedDocumentProvider documentProvider
     ) {
         try {
             final GraphQLSchema graphQLSchema = buildSchema(resourceFile, resourceFiles);
+            final List<Instrumentation> instrumentationList = instrumentations.orderedStream().collect(Collectors.toList());
             return GraphQL.newGraphQL(graphQLSchema)
+                    .queryExecutionStrategy(new IncrementalExecutionStrategy())
                     .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy())
+                    .instrumentation(new ChainedInstrumentation(instrumentationList))
+                    .preparsedDocumentProvider(documentProvider)
                     .build();
         } catch (IOException e) {
             throw new RuntimeException(e);
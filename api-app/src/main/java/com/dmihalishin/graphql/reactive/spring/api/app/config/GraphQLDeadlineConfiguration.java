@@ -0,0 +1,29 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the request latency budget.
+ * Entities, that are not loaded within the budget, are returned as {@code null} with the error,
+ * so the rest of the response is not delayed by them.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "config.graphql.deadline")
+public class GraphQLDeadlineConfiguration {
+
+    /**
+     * Latency budget of the requests without the timeout header
+     */
+    private Duration budget = Duration.ofMillis(500);
+
+    /**
+     * Max latency budget, requested timeouts are capped with it
+     */
+    private Duration maxBudget = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,20 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the incremental delivery ({@code @defer} and {@code @stream})
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "config.graphql.incremental")
+public class GraphQLIncrementalConfiguration {
+
+    /**
+     * Amount of the streamed entities loaded with a single batch request after the initial ones
+     */
+    private int streamChunkSize = 10;
+
+}
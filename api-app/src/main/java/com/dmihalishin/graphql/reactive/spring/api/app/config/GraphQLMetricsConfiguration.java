@@ -0,0 +1,25 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the GraphQL request and field metrics
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "config.graphql.metrics")
+public class GraphQLMetricsConfiguration {
+
+    /**
+     * Share of the requests (from 0 to 1) that are measured
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Measure fields resolved by the property data fetchers as well
+     */
+    private boolean trivialFields = false;
+
+}
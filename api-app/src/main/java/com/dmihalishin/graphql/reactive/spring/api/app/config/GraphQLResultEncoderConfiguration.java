@@ -0,0 +1,40 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.codec.ExecutionResultEncoder;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the GraphQL results encoding
+ *
+ * @see ExecutionResultEncoder
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "config.graphql.result-encoder")
+public class GraphQLResultEncoderConfiguration implements WebFluxConfigurer {
+
+    /**
+     * Mode of the endpoints without explicit mode
+     */
+    private ExecutionResultEncoder.Mode mode = ExecutionResultEncoder.Mode.STREAMING;
+
+    /**
+     * Modes by endpoint path
+     */
+    private Map<String, ExecutionResultEncoder.Mode> endpoints = new HashMap<>();
+
+    @Override
+    public void configureHttpMessageCodecs(final ServerCodecConfigurer configurer) {
+        // the same object mapper as the default JSON encoder has, so results are written exactly as their specification maps
+        configurer.customCodecs().register(new ExecutionResultEncoder(Jackson2ObjectMapperBuilder.json().build(), mode, endpoints));
+    }
+
+}
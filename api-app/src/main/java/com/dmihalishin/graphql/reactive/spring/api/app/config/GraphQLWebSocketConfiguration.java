@@ -0,0 +1,58 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketHandler;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Configuration of the GraphQL WebSocket transport
+ *
+ * @see GraphQLWebSocketHandler
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "config.graphql.web-socket")
+public class GraphQLWebSocketConfiguration {
+
+    /**
+     * WebSocket endpoint path
+     */
+    private String path = "/subscriptions";
+
+    /**
+     * Interval of the keep-alive messages
+     */
+    private Duration keepAlive = Duration.ofSeconds(10);
+
+    /**
+     * Max amount of active operations of a single connection
+     */
+    private int maxOperations = 100;
+
+    /**
+     * Max amount of messages buffered for a single connection, before the connection is closed as too slow
+     */
+    private int bufferSize = 1024;
+
+    @Bean
+    @Profile("!TestWithoutGraphQL")
+    public HandlerMapping graphQLWebSocketMapping(final GraphQLWebSocketHandler handler) {
+        return new SimpleUrlHandlerMapping(Collections.singletonMap(path, handler), Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Bean
+    public WebSocketHandlerAdapter webSocketHandlerAdapter() {
+        return new WebSocketHandlerAdapter();
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the tasks loaded into the database on startup
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "config.task-seed")
+public class TaskSeedConfiguration {
+
+    /**
+     * Load tasks on startup
+     */
+    private boolean enabled = true;
+
+    /**
+     * Amount of generated tasks (ids from 1 to count), used when there is no snapshot
+     */
+    private int count = 99;
+
+    /**
+     * CSV snapshot with the task id in the first column of each line. Generated tasks are used when not set
+     */
+    private Resource snapshot;
+
+    /**
+     * Amount of rows inserted by a single JDBC batch (and transaction)
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Min interval between progress log messages
+     */
+    private Duration progressInterval = Duration.ofSeconds(5);
+
+}
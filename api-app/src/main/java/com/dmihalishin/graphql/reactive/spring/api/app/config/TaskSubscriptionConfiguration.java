@@ -0,0 +1,46 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the task change subscriptions
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "config.task-subscription")
+public class TaskSubscriptionConfiguration {
+
+    /**
+     * What to do with the changes, that slow subscriber could not consume in time
+     */
+    public enum Overflow {
+        /**
+         * Drop the oldest buffered change
+         */
+        DROP_OLDEST,
+        /**
+         * Keep only the latest change, the buffer size is not used
+         */
+        LATEST,
+        /**
+         * Terminate the subscription with an error
+         */
+        ERROR
+    }
+
+    /**
+     * Max amount of changes buffered for a single subscriber
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Max amount of invalidations (batches of the changed task ids) buffered by the shared change feed,
+     * while the changes are loaded. The oldest invalidations are dropped above it
+     */
+    private int feedBufferSize = 1024;
+
+    private Overflow overflow = Overflow.DROP_OLDEST;
+
+}
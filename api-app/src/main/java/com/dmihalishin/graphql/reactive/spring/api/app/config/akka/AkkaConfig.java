@@ -5,10 +5,15 @@ import akka.actor.ActorSystem;
 import akka.cluster.Cluster;
 import akka.cluster.routing.ClusterRouterGroup;
 import akka.cluster.routing.ClusterRouterGroupSettings;
+import akka.routing.ConsistentHashingGroup;
+import akka.routing.Group;
 import akka.routing.RoundRobinGroup;
+import akka.routing.RoutingLogic;
 import akka.routing.SmallestMailboxPool;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.DataLoaderActor;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.TaskLoaderActor;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataRequest;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support.SpringExtension;
 import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
 import com.typesafe.config.ConfigFactory;
@@ -33,6 +38,9 @@ public class AkkaConfig {
     /* Task Actors */
     public static final String TASK_ROUTER_NAME = "taskRouterRef";
     public static final String TASK_REF_NAME = "taskLoaderActorRef";
+    public static final String TASK_ROUTING_LOGIC_NAME = "taskRoutingLogic";
+    /* Dispatchers */
+    public static final String BLOCKING_IO_DISPATCHER = "blocking-io-dispatcher";
 
     @Bean
     public ActorSystem actorSystem(final ApplicationContext applicationContext) {
@@ -66,31 +74,64 @@ public class AkkaConfig {
     public ActorRef productLoaderActor(final ActorSystem system) {
         final String poolSize = System.getenv("PRODUCT_POOL_SIZE");
         final int poolSizeValue = NumberUtils.isDigits(poolSize) ? Integer.parseInt(poolSize) : 4;
+        // task loaders do blocking JDBC calls, so they must not share threads with other actors
         return system.actorOf(
                 SpringExtension.SPRING_EXTENSION_PROVIDER.get(system)
                         .props(TaskLoaderActor.NAME)
+                        .withDispatcher(BLOCKING_IO_DISPATCHER)
+                        .withMailbox(InstrumentedMailbox.MAILBOX_ID)
                         .withRouter(new SmallestMailboxPool(poolSizeValue)),
                 TaskLoaderActor.NAME);
     }
 
     @Bean(TASK_ROUTER_NAME)
-    public ActorRef productRouter(final ActorSystem system) {
+    public ActorRef productRouter(final ActorSystem system, final TaskRouterConfiguration configuration) {
         final Iterable<String> routeesPaths = Collections.singletonList(TaskLoaderActor.ACTOR_NAME);
         final Set<String> useRoles = AkkaUtils.getClusterRoles(System.getenv());
         return system.actorOf(
                 new ClusterRouterGroup(
-                        new RoundRobinGroup(routeesPaths),
+                        taskRoutingGroup(routeesPaths, configuration),
                         new ClusterRouterGroupSettings(1000, routeesPaths, true, useRoles))
                         .props(),
                 "taskRouter");
     }
 
+    /**
+     * Routing logic of the task router, so loads sent to the task router routees directly
+     * are routed to the same routees as the loads sent through the router
+     */
+    @Bean(TASK_ROUTING_LOGIC_NAME)
+    public RoutingLogic productRoutingLogic(final ActorSystem system, final TaskRouterConfiguration configuration) {
+        return taskRoutingGroup(Collections.singletonList(TaskLoaderActor.ACTOR_NAME), configuration)
+                .createRouter(system)
+                .logic();
+    }
+
+    private static Group taskRoutingGroup(final Iterable<String> routeesPaths,
+                                          final TaskRouterConfiguration configuration) {
+        if (!configuration.isConsistentHashing()) {
+            return new RoundRobinGroup(routeesPaths);
+        }
+        // hash ring is rebuilt by the cluster router when nodes join or leave,
+        // batch requests are already split by partition in DataLoaderActor
+        return new ConsistentHashingGroup(routeesPaths)
+                .withVirtualNodesFactor(configuration.getVirtualNodesFactor())
+                .withHashMapper(message -> {
+                    if (message instanceof TaskBatchDataRequest) {
+                        return ((TaskBatchDataRequest) message).getPartition();
+                    } else if (message instanceof TaskDataRequest) {
+                        return configuration.partition(((TaskDataRequest) message).getId());
+                    }
+                    return null;
+                });
+    }
+
     @Bean(DATA_ACTOR_REF_NAME)
-    public ActorRef dataLoaderActor(final ActorSystem system) {
-        final String poolSize = System.getenv("DATA_LOADER_POOL_SIZE");
-        final int poolSizeValue = NumberUtils.isDigits(poolSize) ? Integer.parseInt(poolSize) : 4;
+    public ActorRef dataLoaderActor(final ActorSystem system, final DataLoaderActorConfiguration configuration) {
         return system.actorOf(SpringExtension.SPRING_EXTENSION_PROVIDER.get(system)
-                .props(DataLoaderActor.NAME).withRouter(new SmallestMailboxPool(poolSizeValue)), DataLoaderActor.NAME);
+                .props(DataLoaderActor.NAME)
+                .withMailbox(InstrumentedMailbox.MAILBOX_ID)
+                .withRouter(new SmallestMailboxPool(configuration.getPoolSize())), DataLoaderActor.NAME);
     }
 
 }
@@ -0,0 +1,60 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config.akka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToIntFunction;
+
+/**
+ * Exposes pool size and queue depth of the instrumented Akka dispatchers
+ * and the sizes of the instrumented actor mailboxes.
+ *
+ * @see InstrumentedThreadPoolConfigurator
+ * @see InstrumentedMailbox
+ */
+@Profile("!test")
+@Component
+public class AkkaDispatcherMetrics implements MeterBinder {
+
+    private static final String DISPATCHER_TAG = "dispatcher";
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see MeterBinder#bindTo(MeterRegistry)
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        bind(registry, AkkaConfig.BLOCKING_IO_DISPATCHER);
+        InstrumentedMailbox.bind(registry);
+    }
+
+    private void bind(final MeterRegistry registry, final String dispatcherId) {
+        gauge(registry, dispatcherId, "akka.dispatcher.pool.size",
+                "The current number of threads in the pool", ThreadPoolExecutor::getPoolSize);
+        gauge(registry, dispatcherId, "akka.dispatcher.pool.max",
+                "The maximum allowed number of threads in the pool", ThreadPoolExecutor::getMaximumPoolSize);
+        gauge(registry, dispatcherId, "akka.dispatcher.active",
+                "The approximate number of threads that are actively executing actors", ThreadPoolExecutor::getActiveCount);
+        gauge(registry, dispatcherId, "akka.dispatcher.queued",
+                "The approximate number of actors waiting for a thread", executor -> executor.getQueue().size());
+    }
+
+    private void gauge(final MeterRegistry registry,
+                       final String dispatcherId,
+                       final String name,
+                       final String description,
+                       final ToIntFunction<ThreadPoolExecutor> value) {
+        // executor is created by Akka lazily, so it is resolved on every read
+        Gauge.builder(name, () -> InstrumentedThreadPoolConfigurator.getExecutor(dispatcherId)
+                .map(value::applyAsInt)
+                .orElse(0))
+                .description(description)
+                .tag(DISPATCHER_TAG, dispatcherId)
+                .register(registry);
+    }
+}
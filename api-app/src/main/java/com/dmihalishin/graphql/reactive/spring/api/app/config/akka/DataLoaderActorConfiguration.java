@@ -0,0 +1,115 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config.akka;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the data loader actor timers, hedged task loads, task loader nodes ejection and load shedding
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "akka.data-loader")
+public class DataLoaderActorConfiguration {
+
+    /**
+     * Interval of the expiry and retry checks
+     */
+    private Duration tick = Duration.ofMillis(50);
+
+    /**
+     * Max time to keep the request state, before it is dropped
+     */
+    private Duration stateTtl = Duration.ofMillis(1000);
+
+    /**
+     * Time to wait for the loader response, before the request is resent.
+     * Max delay of the hedged task loads, used as the delay till enough responses are observed
+     */
+    private Duration responseTimeout = Duration.ofMillis(100);
+
+    /**
+     * Time since the request state creation, during which not answered requests could be resent
+     */
+    private Duration retryWindow = Duration.ofMillis(500);
+
+    /**
+     * Percentile of the observed task load latency, after which the hedged load is sent to another routee
+     */
+    private double hedgePercentile = 0.95;
+
+    /**
+     * Min delay of the hedged task loads
+     */
+    private Duration minHedgeDelay = Duration.ofMillis(5);
+
+    /**
+     * Max amount of hedged loads per task load
+     */
+    private int maxHedges = 2;
+
+    /**
+     * Max share of the hedged task loads of all sent task loads
+     */
+    private double hedgeBudget = 0.1;
+
+    /**
+     * Max amount of hedged task loads in a burst
+     */
+    private int hedgeBudgetReserve = 10;
+
+    /**
+     * Amount of the latest responses per routee node used for the latency percentiles
+     */
+    private int latencyWindow = 256;
+
+    /**
+     * Interval of the task loader routees refresh.
+     * Routees are refreshed on the cluster membership and reachability events as well
+     */
+    private Duration routeesRefresh = Duration.ofSeconds(5);
+
+    /**
+     * Amount of task loads in a row, that are not answered by the node within the response timeout,
+     * after which the node is ejected from routing
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * Time the node is ejected for, before the probe load is sent to it
+     */
+    private Duration ejectionTime = Duration.ofSeconds(5);
+
+    /**
+     * Max time the node is ejected for, ejection time is doubled after every failed probe load
+     */
+    private Duration maxEjectionTime = Duration.ofSeconds(60);
+
+    /**
+     * Max share of the nodes, that could be ejected at the same time
+     */
+    private double maxEjectionShare = 0.5;
+
+    /**
+     * Amount of the data loader actors in the node pool
+     */
+    private int poolSize = 4;
+
+    /**
+     * Max amount of requests in flight on the node, new requests above it are rejected immediately.
+     * Requests in flight are the request rate times the load latency, so it should cover the target request rate
+     * of the node for the state TTL, when the task loaders are slow
+     */
+    private int maxInFlight = 10000;
+
+    /**
+     * Retrieves max amount of requests in flight per data loader actor: node limit is split evenly over the pool
+     *
+     * @return max amount of requests in flight per data loader actor, at least one
+     */
+    public int getMaxInFlightPerActor() {
+        return Math.max(1, (maxInFlight + poolSize - 1) / Math.max(1, poolSize));
+    }
+}
@@ -0,0 +1,142 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config.akka;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import akka.dispatch.UnboundedMessageQueueSemantics;
+import com.typesafe.config.Config;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import scala.Option;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unbounded mailbox, that exposes its size as {@code akka.mailbox.size} gauge tagged with the owner actor path,
+ * so the depth of every routee mailbox is visible.
+ * Size is tracked with a counter, because the size of the concurrent queue is calculated by traversing it.
+ * Configured with {@code mailbox-type = "<this class name>"} in the mailbox configuration.
+ *
+ * @see AkkaDispatcherMetrics
+ */
+public class InstrumentedMailbox implements MailboxType, ProducesMessageQueue<InstrumentedMailbox.InstrumentedMessageQueue> {
+
+    public static final String MAILBOX_ID = "instrumented-mailbox";
+
+    private static final String METRIC = "akka.mailbox.size";
+
+    private static final Map<String, InstrumentedMessageQueue> QUEUES = new ConcurrentHashMap<>();
+
+    private static volatile MeterRegistry registry;
+
+    /**
+     * Constructor used by Akka to create mailbox type
+     *
+     * @param settings actor system settings. Cannot be {@code null}
+     * @param config   mailbox configuration. Cannot be {@code null}
+     */
+    public InstrumentedMailbox(final ActorSystem.Settings settings, final Config config) {
+        // no settings
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see MailboxType#create(Option, Option)
+     */
+    @Override
+    public MessageQueue create(final Option<ActorRef> owner, final Option<ActorSystem> system) {
+        final InstrumentedMessageQueue queue = new InstrumentedMessageQueue(
+                owner.isDefined() ? owner.get().path().toStringWithoutAddress() : null);
+        if (queue.path != null) {
+            QUEUES.put(queue.path, queue);
+            final MeterRegistry current = registry;
+            if (current != null) {
+                queue.register(current);
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Register mailbox size gauges of all existing and future mailboxes
+     *
+     * @param meterRegistry meter registry. Cannot be {@code null}
+     */
+    static void bind(final MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+        QUEUES.values().forEach(queue -> queue.register(meterRegistry));
+    }
+
+    /**
+     * Unbounded message queue with the size counter
+     */
+    public static final class InstrumentedMessageQueue implements MessageQueue, UnboundedMessageQueueSemantics {
+
+        private final Queue<Envelope> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final String path;
+        private volatile Gauge gauge;
+
+        private InstrumentedMessageQueue(final String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void enqueue(final ActorRef receiver, final Envelope handle) {
+            queue.add(handle);
+            size.incrementAndGet();
+        }
+
+        @Override
+        public Envelope dequeue() {
+            final Envelope envelope = queue.poll();
+            if (envelope != null) {
+                size.decrementAndGet();
+            }
+            return envelope;
+        }
+
+        @Override
+        public int numberOfMessages() {
+            return size.get();
+        }
+
+        @Override
+        public boolean hasMessages() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public void cleanUp(final ActorRef owner, final MessageQueue deadLetters) {
+            Envelope envelope;
+            while ((envelope = dequeue()) != null) {
+                deadLetters.enqueue(owner, envelope);
+            }
+            if (path != null) {
+                QUEUES.remove(path, this);
+                final Gauge current = gauge;
+                final MeterRegistry meterRegistry = registry;
+                if (current != null && meterRegistry != null) {
+                    meterRegistry.remove(current);
+                }
+            }
+        }
+
+        private synchronized void register(final MeterRegistry meterRegistry) {
+            if (gauge == null) {
+                gauge = Gauge.builder(METRIC, size, AtomicInteger::get)
+                        .description("The number of messages waiting in the actor mailbox")
+                        .tag("actor", path)
+                        .register(meterRegistry);
+            }
+        }
+    }
+}
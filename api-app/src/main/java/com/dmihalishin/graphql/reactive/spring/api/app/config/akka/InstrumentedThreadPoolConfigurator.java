@@ -0,0 +1,66 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config.akka;
+
+import akka.dispatch.DispatcherPrerequisites;
+import akka.dispatch.ExecutorServiceFactory;
+import akka.dispatch.ThreadPoolExecutorConfigurator;
+import com.typesafe.config.Config;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Akka {@code thread-pool-executor} configurator, that remembers created executors by dispatcher ID,
+ * so pool size and queue depth of the dispatcher could be exposed as metrics.
+ * Configured with {@code executor = "<this class name>"} in the dispatcher configuration,
+ * all {@code thread-pool-executor} settings are supported.
+ *
+ * @see ThreadPoolExecutorConfigurator
+ * @see AkkaDispatcherMetrics
+ */
+public class InstrumentedThreadPoolConfigurator extends ThreadPoolExecutorConfigurator {
+
+    private static final String THREAD_POOL_EXECUTOR = "thread-pool-executor";
+
+    private static final Map<String, ThreadPoolExecutor> EXECUTORS = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor used by Akka to create dispatcher executor
+     *
+     * @param config        dispatcher configuration. Cannot be {@code null}
+     * @param prerequisites dispatcher prerequisites. Cannot be {@code null}
+     */
+    public InstrumentedThreadPoolConfigurator(final Config config, final DispatcherPrerequisites prerequisites) {
+        super(config.getConfig(THREAD_POOL_EXECUTOR), prerequisites);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ThreadPoolExecutorConfigurator#createExecutorServiceFactory(String, ThreadFactory)
+     */
+    @Override
+    public ExecutorServiceFactory createExecutorServiceFactory(final String id, final ThreadFactory threadFactory) {
+        final ExecutorServiceFactory factory = super.createExecutorServiceFactory(id, threadFactory);
+        return () -> {
+            final ExecutorService executorService = factory.createExecutorService();
+            if (executorService instanceof ThreadPoolExecutor) {
+                EXECUTORS.put(id, (ThreadPoolExecutor) executorService);
+            }
+            return executorService;
+        };
+    }
+
+    /**
+     * Retrieves executor of the dispatcher
+     *
+     * @param dispatcherId dispatcher ID. Cannot be {@code null}
+     * @return executor, or empty if dispatcher was not used yet
+     */
+    public static Optional<ThreadPoolExecutor> getExecutor(final String dispatcherId) {
+        return Optional.ofNullable(EXECUTORS.get(dispatcherId));
+    }
+}
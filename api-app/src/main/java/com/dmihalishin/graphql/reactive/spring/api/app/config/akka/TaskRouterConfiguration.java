@@ -0,0 +1,54 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.config.akka;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the cluster router for the task loader actors
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "akka.task-router")
+public class TaskRouterConfiguration {
+
+    /**
+     * Routing mode
+     */
+    public enum Mode {
+        /**
+         * Requests are spread over all routees
+         */
+        ROUND_ROBIN,
+        /**
+         * Requests are routed by task id partition, so the same task is always loaded on the same node
+         */
+        CONSISTENT_HASHING
+    }
+
+    private Mode mode = Mode.ROUND_ROBIN;
+
+    /**
+     * Amount of virtual nodes per routee on the hash ring
+     */
+    private int virtualNodesFactor = 10;
+
+    /**
+     * Amount of task id partitions. Batch requests are split by partition before routing
+     */
+    private int partitions = 64;
+
+    public boolean isConsistentHashing() {
+        return mode == Mode.CONSISTENT_HASHING;
+    }
+
+    /**
+     * Retrieves partition of the task
+     *
+     * @param taskId task id
+     * @return partition in range {@code [0, partitions)}
+     */
+    public int partition(final int taskId) {
+        return Math.floorMod(taskId * 0x9E3779B9, partitions);
+    }
+}
@@ -0,0 +1,49 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.dao;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * {@link TaskStore} backed by the blocking JPA repository.
+ * Queries are executed on the bounded elastic scheduler, so callers on the event loop
+ * (e.g. the task count endpoint) are never blocked.
+ *
+ * @see TaskStore
+ */
+@Repository
+@Profile("!" + TaskStore.REACTIVE_PROFILE)
+public class JpaTaskStore implements TaskStore {
+
+    private final TaskRepository taskRepository;
+
+    public JpaTaskStore(final TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromCallable(taskRepository::count)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final int id) {
+        return Mono.fromCallable(() -> taskRepository.existsById(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Set<Integer>> findExistingIds(final Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(Collections.emptySet());
+        }
+        return Mono.fromCallable(() -> taskRepository.findExistingIds(ids))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
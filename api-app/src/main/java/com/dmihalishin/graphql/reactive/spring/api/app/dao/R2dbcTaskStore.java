@@ -0,0 +1,56 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.dao;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking {@link TaskStore} backed by R2DBC.
+ * Uses the same in-memory database, that is populated through JPA.
+ *
+ * @see TaskStore
+ */
+@Repository
+@Profile(TaskStore.REACTIVE_PROFILE)
+public class R2dbcTaskStore implements TaskStore {
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcTaskStore(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return databaseClient.execute("SELECT COUNT(*) FROM task")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final int id) {
+        return databaseClient.execute("SELECT id FROM task WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Integer.class))
+                .first()
+                .hasElement();
+    }
+
+    @Override
+    public Mono<Set<Integer>> findExistingIds(final Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(Collections.emptySet());
+        }
+        return databaseClient.execute("SELECT id FROM task WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(row -> row.get(0, Integer.class))
+                .all()
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,138 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.dao;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.config.TaskSeedConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Loads tasks into the database on startup.
+ * Tasks are inserted with JDBC batches, one transaction per batch, from a CSV snapshot or generated ids.
+ * Loading runs before the application reports readiness, so the node does not accept traffic before data exists.
+ *
+ * @see TaskSeedConfiguration
+ */
+@Slf4j
+@Component
+public class TaskBulkLoader implements ApplicationRunner {
+
+    private static final String INSERT_SQL = "insert into task (id) values (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskSeedConfiguration configuration;
+
+    /**
+     * TaskBulkLoader constructor
+     *
+     * @param jdbcTemplate       JDBC template. Cannot be {@code null}
+     * @param transactionManager transaction manager. Cannot be {@code null}
+     * @param eventPublisher     application event publisher. Cannot be {@code null}
+     * @param configuration      seed configuration. Cannot be {@code null}
+     */
+    public TaskBulkLoader(final JdbcTemplate jdbcTemplate,
+                          final PlatformTransactionManager transactionManager,
+                          final ApplicationEventPublisher eventPublisher,
+                          final TaskSeedConfiguration configuration) {
+        Validate.isTrue(configuration.getBatchSize() > 0, "batch size must be positive");
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) throws IOException {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+        // readiness is switched to ACCEPTING_TRAFFIC by Spring Boot only after all runners are completed
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        if (configuration.getSnapshot() == null) {
+            log.info("Loading {} generated tasks", configuration.getCount());
+            load(IntStream.rangeClosed(1, configuration.getCount()).iterator(), configuration.getCount());
+        } else {
+            log.info("Loading tasks from {}", configuration.getSnapshot());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    configuration.getSnapshot().getInputStream(), StandardCharsets.UTF_8))) {
+                load(reader.lines()
+                        .map(String::trim)
+                        // skips empty lines and header
+                        .filter(line -> !line.isEmpty() && Character.isDigit(line.charAt(0)))
+                        .mapToInt(TaskBulkLoader::parseId)
+                        .iterator(), -1);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private void load(final PrimitiveIterator.OfInt ids, final long total) {
+        final long startNanos = System.nanoTime();
+        final long progressIntervalNanos = configuration.getProgressInterval().toNanos();
+        final int[] batch = new int[configuration.getBatchSize()];
+        long loaded = 0;
+        long lastProgressNanos = startNanos;
+        while (ids.hasNext()) {
+            int size = 0;
+            while (size < batch.length && ids.hasNext()) {
+                batch[size++] = ids.nextInt();
+            }
+            insert(batch, size);
+            loaded += size;
+
+            final long nowNanos = System.nanoTime();
+            if (nowNanos - lastProgressNanos >= progressIntervalNanos) {
+                lastProgressNanos = nowNanos;
+                if (total > 0) {
+                    log.info("Loaded {} of {} tasks ({}%)", loaded, total, loaded * 100 / total);
+                } else {
+                    log.info("Loaded {} tasks", loaded);
+                }
+            }
+        }
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("Loaded {} tasks in {} ms ({} tasks/s)", loaded, millis, loaded * 1000 / Math.max(1, millis));
+    }
+
+    private void insert(final int[] batch, final int size) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                        ps.setInt(1, batch[i]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                }));
+    }
+
+    private static int parseId(final String line) {
+        final int separator = line.indexOf(',');
+        return Integer.parseInt(separator < 0 ? line : line.substring(0, separator).trim());
+    }
+}
@@ -1,8 +1,22 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.dao;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Set;
+
 @Repository
 public interface TaskRepository extends CrudRepository<Task, Integer> {
+
+    /**
+     * Retrieves ids of the existing tasks with a single query
+     *
+     * @param ids task ids. Cannot be {@code null} or empty
+     * @return ids of the tasks that exist
+     */
+    @Query("select t.id from Task t where t.id in :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
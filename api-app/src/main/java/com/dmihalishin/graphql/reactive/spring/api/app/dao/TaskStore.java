@@ -0,0 +1,44 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.dao;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Read access to the tasks.
+ * Implementation is selected by profile: JPA by default, R2DBC with the {@code reactive-db} profile.
+ *
+ * @see JpaTaskStore
+ * @see R2dbcTaskStore
+ */
+public interface TaskStore {
+
+    /**
+     * Profile, that enables non-blocking R2DBC task store
+     */
+    String REACTIVE_PROFILE = "reactive-db";
+
+    /**
+     * Retrieves amount of tasks
+     *
+     * @return amount of tasks
+     */
+    Mono<Long> count();
+
+    /**
+     * Check if task exists
+     *
+     * @param id task id
+     * @return {@code true} if task exists. Otherwise {@code false}
+     */
+    Mono<Boolean> existsById(int id);
+
+    /**
+     * Retrieves ids of the existing tasks with a single query
+     *
+     * @param ids task ids. Cannot be {@code null}
+     * @return ids of the tasks that exist
+     */
+    Mono<Set<Integer>> findExistingIds(Collection<Integer> ids);
+}
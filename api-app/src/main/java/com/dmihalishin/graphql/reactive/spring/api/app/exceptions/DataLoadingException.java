@@ -0,0 +1,45 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.exceptions;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.DataErrorType;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.ExecutionPath;
+import graphql.language.SourceLocation;
+import lombok.Getter;
+
+/**
+ * Data Loading Exception that could be thrown
+ * if single entity of the response cannot be loaded, so the rest of the response is still returned
+ */
+@Getter
+public class DataLoadingException extends RuntimeException {
+
+    private final DataErrorType errorType;
+
+    /**
+     * Creates {@link DataLoadingException} with error type
+     *
+     * @param errorType error type, that is returned as the GraphQL error classification
+     * @param message   error message
+     */
+    public DataLoadingException(DataErrorType errorType, String message) {
+        super(message);
+        this.errorType = errorType;
+    }
+
+    /**
+     * Convert to GraphQL error of the entity
+     *
+     * @param path     path of the entity. Cannot be {@code null}
+     * @param location location of the field in the query. Can be {@code null}
+     * @return GraphQL error
+     */
+    public GraphQLError toError(ExecutionPath path, SourceLocation location) {
+        return GraphqlErrorBuilder.newError()
+                .message(getMessage())
+                .errorType(errorType)
+                .path(path)
+                .location(location)
+                .build();
+    }
+}
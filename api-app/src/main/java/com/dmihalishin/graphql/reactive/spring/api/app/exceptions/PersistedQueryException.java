@@ -0,0 +1,24 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Persisted Query Exception that could be thrown
+ * if persisted query cannot be resolved
+ */
+@Getter
+public class PersistedQueryException extends RuntimeException {
+
+    private final String code;
+
+    /**
+     * Creates {@link PersistedQueryException} with error code
+     *
+     * @param code    error code, that is returned in the GraphQL error extensions
+     * @param message error message
+     */
+    public PersistedQueryException(String code, String message) {
+        super(message);
+        this.code = code;
+    }
+}
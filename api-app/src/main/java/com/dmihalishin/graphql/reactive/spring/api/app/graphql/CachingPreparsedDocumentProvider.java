@@ -0,0 +1,68 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * {@link PreparsedDocumentProvider} that keeps parsed and validated documents
+ * in a bounded cache, keyed by query text and operation name.
+ * Documents with parse or validation errors are never cached.
+ * Hit, miss and eviction counters are exposed as {@code cache.*} metrics with {@code cache=graphql.documents} tag.
+ *
+ * @see PreparsedDocumentProvider
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    static final String CACHE_NAME = "graphql.documents";
+
+    private final Cache<Pair<String, String>, PreparsedDocumentEntry> cache;
+
+    /**
+     * CachingPreparsedDocumentProvider constructor
+     *
+     * @param maxSize       max amount of cached documents
+     * @param meterRegistry meter registry. Cannot be {@code null}
+     */
+    public CachingPreparsedDocumentProvider(@Value("${config.graphql.document-cache.max-size: 1000}") final long maxSize,
+                                            final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see PreparsedDocumentProvider#getDocument(ExecutionInput, Function)
+     */
+    @Override
+    public PreparsedDocumentEntry getDocument(final ExecutionInput executionInput,
+                                              final Function<ExecutionInput, PreparsedDocumentEntry> computeFunction) {
+        final Pair<String, String> key = Pair.of(executionInput.getQuery(), executionInput.getOperationName());
+        final PreparsedDocumentEntry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final PreparsedDocumentEntry entry = computeFunction.apply(executionInput);
+        // invalid documents are not cached, otherwise random broken queries could evict valid ones
+        if (!entry.hasErrors()) {
+            cache.put(key, entry);
+        }
+        return entry;
+    }
+}
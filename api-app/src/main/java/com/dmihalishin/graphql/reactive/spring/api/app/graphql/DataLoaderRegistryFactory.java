@@ -0,0 +1,46 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLBatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Factory of the request scoped {@link DataLoaderRegistry}.
+ * Data loaders cache loaded values, so the registry must never be shared between requests.
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+public class DataLoaderRegistryFactory {
+
+    private final Collection<GraphQLBatchLoader<?, ?>> batchLoaders;
+
+    /**
+     * DataLoaderRegistryFactory constructor
+     *
+     * @param batchLoaders batch loaders that should be registered. Cannot be {@code null}
+     */
+    public DataLoaderRegistryFactory(final Collection<GraphQLBatchLoader<?, ?>> batchLoaders) {
+        this.batchLoaders = batchLoaders;
+    }
+
+    /**
+     * Create new registry with fresh data loaders for each known batch loader
+     *
+     * @param context request context, that is passed to the batch loaders. Can be {@code null}
+     * @return new {@link DataLoaderRegistry}
+     */
+    public DataLoaderRegistry create(final Object context) {
+        final DataLoaderRegistry registry = new DataLoaderRegistry();
+        for (final GraphQLBatchLoader<?, ?> batchLoader : batchLoaders) {
+            final DataLoaderOptions options = new DataLoaderOptions(batchLoader.getOptions())
+                    .setBatchLoaderContextProvider(() -> context);
+            registry.register(batchLoader.getLoaderKey(), DataLoader.newDataLoader(batchLoader, options));
+        }
+        return registry;
+    }
+}
@@ -1,13 +1,20 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.graphql;
 
+import com.dmihalishin.graphql.reactive.spring.api.app.config.GraphQLDeadlineConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.PersistedQueryException;
 import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLExecutionLocalContext;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental.IncrementalResults;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.persisted.PersistedQuerySupport;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.GraphQLRequestBody;
+import graphql.DeferredExecutionResult;
+import graphql.ErrorType;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
 import graphql.GraphQL;
+import graphql.GraphqlErrorBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.dataloader.DataLoaderRegistry;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
@@ -16,13 +23,20 @@ import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * GraphQL Invocation
+ * GraphQL Invocation.
+ * Results of the queries with {@code @defer} or {@code @stream} are sent incrementally:
+ * the initial result first, then every deferred or streamed payload as soon as it is ready.
+ *
+ * @see IncrementalResults
  */
 @Profile("!TestWithoutGraphQL")
 @Component
@@ -33,18 +47,28 @@ public class GraphQLInvocation {
 
     private final GraphQL graphQL;
 
-    private final DataLoaderRegistry dataLoaderRegistry;
+    private final DataLoaderRegistryFactory dataLoaderRegistryFactory;
+
+    private final PersistedQuerySupport persistedQuerySupport;
+
+    private final GraphQLDeadlineConfiguration deadlineConfiguration;
 
     /**
      * GraphQLInvocation constructor
      *
-     * @param graphQL            GraphQL engine. Cannot be @{code null}
-     * @param dataLoaderRegistry data loader registry. Can be {@code null}
+     * @param graphQL                   GraphQL engine. Cannot be @{code null}
+     * @param dataLoaderRegistryFactory factory of the request scoped data loader registry. Can be {@code null}
+     * @param persistedQuerySupport     persisted queries support. Can be {@code null}
+     * @param deadlineConfiguration     request latency budget. Cannot be {@code null}
      */
     public GraphQLInvocation(final GraphQL graphQL,
-                             @Autowired(required = false) final DataLoaderRegistry dataLoaderRegistry) {
+                             @Autowired(required = false) final DataLoaderRegistryFactory dataLoaderRegistryFactory,
+                             @Autowired(required = false) final PersistedQuerySupport persistedQuerySupport,
+                             final GraphQLDeadlineConfiguration deadlineConfiguration) {
         this.graphQL = graphQL;
-        this.dataLoaderRegistry = dataLoaderRegistry;
+        this.dataLoaderRegistryFactory = dataLoaderRegistryFactory;
+        this.persistedQuerySupport = persistedQuerySupport;
+        this.deadlineConfiguration = deadlineConfiguration;
     }
 
     /**
@@ -52,32 +76,108 @@ public class GraphQLInvocation {
      *
      * @param requestBody request body. Cannot be @{code null}
      * @param userDetails {@code UserDetails} of authorized user. Can be {@code null}
-     * @return {@code Mono} with response as Map
+     * @return {@code Flux} with responses as Map
      */
     public Flux<Map<String, Object>> invoke(final GraphQLRequestBody requestBody,
                                             final UserDetails userDetails) {
+        return execute(requestBody, userDetails).map(ExecutionResult::toSpecification);
+    }
+
+    /**
+     * Execute GraphQL request. Results are not converted to the specification maps,
+     * so they could be written straight into the response.
+     *
+     * @param requestBody request body. Cannot be @{code null}
+     * @param userDetails {@code UserDetails} of authorized user. Can be {@code null}
+     * @return {@code Flux} with execution results
+     */
+    public Flux<ExecutionResult> execute(final GraphQLRequestBody requestBody,
+                                         final UserDetails userDetails) {
+        return execute(requestBody, userDetails, null);
+    }
+
+    /**
+     * Execute GraphQL request within the latency budget.
+     * Entities, that are not loaded within the budget, are returned as {@code null} with the error.
+     *
+     * @param requestBody request body. Cannot be @{code null}
+     * @param userDetails {@code UserDetails} of authorized user. Can be {@code null}
+     * @param timeout     requested latency budget, capped with the configured max budget.
+     *                    Can be {@code null}, then the configured budget is used
+     * @return {@code Flux} with execution results
+     */
+    public Flux<ExecutionResult> execute(final GraphQLRequestBody requestBody,
+                                         final UserDetails userDetails,
+                                         final Duration timeout) {
+        final long deadlineNanos = System.nanoTime() + getBudget(timeout).toNanos();
+        final String query;
+        try {
+            // persisted query is resolved to the full query text, so parsed document is still taken from the document cache
+            query = persistedQuerySupport == null ? requestBody.getQuery() : persistedQuerySupport.resolveQuery(requestBody);
+        } catch (PersistedQueryException e) {
+            return Flux.just(new ExecutionResultImpl(GraphqlErrorBuilder.newError()
+                    .message(e.getMessage())
+                    .errorType(ErrorType.ValidationError)
+                    .extensions(Collections.singletonMap("code", e.getCode()))
+                    .build()));
+        }
         final ExecutionInput.Builder executionInputBuilder = ExecutionInput.newExecutionInput()
-                .query(StringUtils.trimToEmpty(requestBody.getQuery()))
+                .query(StringUtils.trimToEmpty(query))
                 .operationName(requestBody.getOperationName())
                 .variables(Optional.ofNullable(requestBody.getVariables()).orElseGet(HashMap::new));
-        if (dataLoaderRegistry != null) {
-            executionInputBuilder.dataLoaderRegistry(dataLoaderRegistry);
-        }
         executionInputBuilder.context(userDetails);
-        executionInputBuilder.localContext(GraphQLExecutionLocalContext.builder().totalCapacity(TOTAL_CONTEXT_SIZE_CAPACITY).build());
+        final IncrementalResults incrementalResults = new IncrementalResults();
+        final GraphQLExecutionLocalContext localContext = GraphQLExecutionLocalContext.builder()
+                .totalCapacity(TOTAL_CONTEXT_SIZE_CAPACITY)
+                .deadlineNanos(deadlineNanos)
+                .incrementalResults(incrementalResults)
+                .build();
+        executionInputBuilder.localContext(localContext);
+        if (dataLoaderRegistryFactory != null) {
+            // data loaders cache values, so every request must get its own registry,
+            // batch loaders get the local context to respect the request deadline
+            executionInputBuilder.dataLoaderRegistry(dataLoaderRegistryFactory.create(localContext));
+        }
         final ExecutionInput executionInput = executionInputBuilder.build();
-        return getMapFlux(executionInput);
+        return getResultFlux(executionInput, incrementalResults);
     }
 
-    private Flux<Map<String, Object>> getMapFlux(ExecutionInput executionInput) {
+    private Duration getBudget(final Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            return deadlineConfiguration.getBudget();
+        }
+        return timeout.compareTo(deadlineConfiguration.getMaxBudget()) > 0 ? deadlineConfiguration.getMaxBudget() : timeout;
+    }
+
+    private Flux<ExecutionResult> getResultFlux(ExecutionInput executionInput, IncrementalResults incrementalResults) {
         final CompletableFuture<ExecutionResult> future = graphQL.executeAsync(executionInput);
         return Mono.fromFuture(future).flatMapMany(executionResult -> {
             if (executionResult.getData() instanceof Publisher) {
                 Publisher<ExecutionResult> stream = executionResult.getData();
-                return Flux.from(stream).map(ExecutionResult::toSpecification);
+                return Flux.from(stream);
             } else {
-                return Flux.just(executionResult.toSpecification());
+                // initial result is sent first, then deferred and streamed payloads as soon as each one is ready
+                final ExecutionResult initialResult = withoutDeferredResults(executionResult, incrementalResults);
+                incrementalResults.initialResultCompleted();
+                return Flux.concat(Mono.just(initialResult), incrementalResults.results());
             }
         });
     }
+
+    private static ExecutionResult withoutDeferredResults(final ExecutionResult executionResult,
+                                                          final IncrementalResults incrementalResults) {
+        final Map<Object, Object> extensions = executionResult.getExtensions();
+        if (extensions == null || !(extensions.get(GraphQL.DEFERRED_RESULTS) instanceof Publisher)) {
+            return executionResult;
+        }
+        // publisher of the deferred results is not typed in the extensions, so each result is cast when it is emitted
+        final Publisher<?> deferredResults = (Publisher<?>) extensions.get(GraphQL.DEFERRED_RESULTS);
+        incrementalResults.add(Flux.from(deferredResults).cast(DeferredExecutionResult.class));
+        final Map<Object, Object> otherExtensions = new LinkedHashMap<>(extensions);
+        otherExtensions.remove(GraphQL.DEFERRED_RESULTS);
+        return ExecutionResultImpl.newExecutionResult()
+                .from(executionResult)
+                .extensions(otherExtensions.isEmpty() ? null : otherExtensions)
+                .build();
+    }
 }
@@ -0,0 +1,256 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import graphql.DeferredExecutionResult;
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoder of the GraphQL results as {@code application/stream+json}.
+ * In {@link Mode#STREAMING} mode the result is written straight into the response buffer with the streaming JSON generator,
+ * without {@link ExecutionResult#toSpecification()} copy and without intermediate byte array.
+ * Output is the same as the Jackson encoder writes for the specification map: the same {@link ObjectMapper}
+ * generator settings and null values inclusion are used, values of unknown types are written by the {@link ObjectMapper}.
+ * Mode is selected per endpoint (request path), other endpoints use the default one.
+ *
+ * @see org.springframework.http.codec.json.Jackson2JsonEncoder
+ */
+@Slf4j
+public class ExecutionResultEncoder implements HttpMessageEncoder<ExecutionResult> {
+
+    private static final String MODE_HINT = ExecutionResultEncoder.class.getName() + ".MODE";
+
+    private static final List<MediaType> MEDIA_TYPES = Collections.singletonList(MediaType.APPLICATION_STREAM_JSON);
+
+    private static final byte[] SEPARATOR = {'\n'};
+
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter writer;
+
+    private final Mode defaultMode;
+
+    private final Map<String, Mode> endpointModes;
+
+    private final boolean streamingSupported;
+
+    private final boolean suppressNullValues;
+
+    /*
+     * size of the last written result, so the buffer is allocated once for results of the same shape
+     */
+    private volatile int bufferSize = MIN_BUFFER_SIZE;
+
+    /**
+     * ExecutionResultEncoder constructor
+     *
+     * @param objectMapper  Jackson object mapper. Cannot be {@code null}
+     * @param defaultMode   mode of the endpoints without explicit mode. Cannot be {@code null}
+     * @param endpointModes modes by request path. Cannot be {@code null}
+     */
+    public ExecutionResultEncoder(final ObjectMapper objectMapper,
+                                  final Mode defaultMode,
+                                  final Map<String, Mode> endpointModes) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer();
+        this.defaultMode = defaultMode;
+        this.endpointModes = endpointModes;
+        final JsonInclude.Include inclusion = objectMapper.getSerializationConfig()
+                .getDefaultPropertyInclusion(Map.class)
+                .getContentInclusion();
+        this.suppressNullValues = inclusion == JsonInclude.Include.NON_NULL || inclusion == JsonInclude.Include.NON_ABSENT;
+        this.streamingSupported = suppressNullValues
+                || inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS;
+        if (!streamingSupported) {
+            log.warn("Map values inclusion {} is not supported by streaming, results are written as specification maps", inclusion);
+        }
+    }
+
+    @Override
+    public boolean canEncode(final ResolvableType elementType, final MimeType mimeType) {
+        return ExecutionResult.class.isAssignableFrom(elementType.toClass())
+                && (mimeType == null || MediaType.APPLICATION_STREAM_JSON.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(final Publisher<? extends ExecutionResult> inputStream,
+                                   final DataBufferFactory bufferFactory,
+                                   final ResolvableType elementType,
+                                   final MimeType mimeType,
+                                   final Map<String, Object> hints) {
+        final Mode mode = getMode(hints);
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(result -> write(result, bufferFactory, mode, false))
+                    .flux();
+        }
+        return Flux.from(inputStream).map(result -> write(result, bufferFactory, mode, true));
+    }
+
+    @Override
+    public DataBuffer encodeValue(final ExecutionResult value,
+                                  final DataBufferFactory bufferFactory,
+                                  final ResolvableType valueType,
+                                  final MimeType mimeType,
+                                  final Map<String, Object> hints) {
+        return write(value, bufferFactory, getMode(hints), false);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return Collections.unmodifiableList(MEDIA_TYPES);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(final ResolvableType actualType,
+                                              final ResolvableType elementType,
+                                              final MediaType mediaType,
+                                              final ServerHttpRequest request,
+                                              final ServerHttpResponse response) {
+        final Mode mode = endpointModes.get(request.getPath().pathWithinApplication().value());
+        return mode == null ? Hints.none() : Hints.from(MODE_HINT, mode);
+    }
+
+    private Mode getMode(final Map<String, Object> hints) {
+        final Mode mode = hints == null ? null : (Mode) hints.get(MODE_HINT);
+        return mode == null ? defaultMode : mode;
+    }
+
+    private DataBuffer write(final ExecutionResult result,
+                             final DataBufferFactory bufferFactory,
+                             final Mode mode,
+                             final boolean separator) {
+        final DataBuffer buffer = bufferFactory.allocateBuffer(bufferSize);
+        try {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream(), JsonEncoding.UTF8)) {
+                if (mode == Mode.STREAMING && streamingSupported) {
+                    objectMapper.getSerializationConfig().initialize(generator);
+                    writeResult(generator, result);
+                } else {
+                    writer.writeValue(generator, result.toSpecification());
+                }
+            }
+            if (separator) {
+                buffer.write(SEPARATOR);
+            }
+        } catch (IOException | RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+        }
+        bufferSize = Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, buffer.readableByteCount()));
+        return buffer;
+    }
+
+    /*
+     * the same fields and order as ExecutionResultImpl#toSpecification
+     */
+    private void writeResult(final JsonGenerator generator, final ExecutionResult result) throws IOException {
+        generator.writeStartObject();
+        final List<GraphQLError> errors = result.getErrors();
+        if (errors != null && !errors.isEmpty()) {
+            generator.writeFieldName("errors");
+            generator.writeStartArray();
+            for (GraphQLError error : errors) {
+                writeValue(generator, error.toSpecification());
+            }
+            generator.writeEndArray();
+        }
+        if (result.isDataPresent()) {
+            writeField(generator, "data", result.getData());
+        }
+        if (result.getExtensions() != null) {
+            generator.writeFieldName("extensions");
+            writeValue(generator, result.getExtensions());
+        }
+        if (result instanceof DeferredExecutionResult) {
+            // path of the incremental payload
+            writeField(generator, "path", ((DeferredExecutionResult) result).getPath());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeField(final JsonGenerator generator, final String name, final Object value) throws IOException {
+        if (value != null || !suppressNullValues) {
+            generator.writeFieldName(name);
+            writeValue(generator, value);
+        }
+    }
+
+    private void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writeField(generator, String.valueOf(entry.getKey()), entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (Object item : (List<?>) value) {
+                writeValue(generator, item);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Double) {
+            generator.writeNumber((Double) value);
+        } else {
+            // custom scalars and other types are written exactly as the object mapper does
+            writer.writeValue(generator, value);
+        }
+    }
+
+    /**
+     * Way of writing the result
+     */
+    public enum Mode {
+        /**
+         * Result is written straight into the response buffer
+         */
+        STREAMING,
+        /**
+         * Result is converted to the specification map and written by the object mapper
+         */
+        SPECIFICATION
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Encoders of the GraphQL results into HTTP responses should be located in this package
+ */
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.codec;
@@ -0,0 +1,25 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher;
+
+import graphql.ErrorClassification;
+
+/**
+ * Classification of the errors of the entities, that could not be loaded.
+ * Returned as {@code classification} of the GraphQL error extensions.
+ */
+public enum DataErrorType implements ErrorClassification {
+
+    /**
+     * Entity is not loaded within the request latency budget
+     */
+    DeadlineExceeded,
+
+    /**
+     * Entity loading failed
+     */
+    DataLoadingFailed,
+
+    /**
+     * Entity loading is rejected, because the data loaders are overloaded
+     */
+    Overloaded
+}
@@ -0,0 +1,33 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher;
+
+import org.dataloader.BatchLoaderWithContext;
+import org.dataloader.DataLoaderOptions;
+
+/**
+ * GraphQL Batch Loader, that is registered in the request scoped
+ * {@link org.dataloader.DataLoaderRegistry}, so all fetchers of one request
+ * could share the same batched and cached load.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @see BatchLoaderWithContext
+ */
+public interface GraphQLBatchLoader<K, V> extends BatchLoaderWithContext<K, V> {
+
+    /**
+     * Retrieves key that will be used to register such loader in the {@link org.dataloader.DataLoaderRegistry}
+     *
+     * @return loader key
+     */
+    String getLoaderKey();
+
+    /**
+     * Retrieves options of the {@link org.dataloader.DataLoader} created for such loader
+     *
+     * @return data loader options
+     */
+    default DataLoaderOptions getOptions() {
+        return DataLoaderOptions.newOptions();
+    }
+
+}
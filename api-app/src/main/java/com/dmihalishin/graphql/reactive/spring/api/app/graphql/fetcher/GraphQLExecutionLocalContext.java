@@ -1,5 +1,6 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher;
 
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental.IncrementalResults;
 import lombok.Builder;
 import lombok.Data;
 
@@ -12,4 +13,14 @@ public class GraphQLExecutionLocalContext {
 
     private double totalCapacity;
 
+    /**
+     * Deadline of the request as {@link System#nanoTime()}, entities should be loaded before it
+     */
+    private long deadlineNanos;
+
+    /**
+     * Collector of the incremental ({@code @defer} and {@code @stream}) payloads of the request
+     */
+    private IncrementalResults incrementalResults;
+
 }
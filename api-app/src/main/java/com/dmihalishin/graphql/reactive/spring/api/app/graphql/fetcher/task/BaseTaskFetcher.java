@@ -1,76 +1,180 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.task;
 
-import akka.actor.ActorRef;
-import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.EmptyResponse;
-import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataRequest;
-import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataResponse;
-import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskEntity;
-import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
-import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.StatusResource;
+import akka.pattern.AskTimeoutException;
+import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.DataLoadingException;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.DataErrorType;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLExecutionLocalContext;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResource;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResponse;
-import graphql.GraphQLException;
+import graphql.ExceptionWhileDataFetching;
+import graphql.GraphQLError;
+import graphql.execution.ExecutionPath;
+import graphql.schema.DataFetchingEnvironment;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
-
-import static akka.pattern.Patterns.ask;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 class BaseTaskFetcher {
 
     private static final String LOADER_ERROR = "Cannot load Task data for id \"%d\"";
+    private static final String DEADLINE_ERROR = "Task data for id \"%d\" is not loaded within the latency budget";
+    private static final String OVERLOADED_ERROR = "Task data for id \"%d\" is not loaded: data loaders are overloaded";
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
     static final String KEY = "getTasks";
 
-    private final ActorRef dataLoaderActor;
+    private final TaskBatchLoader taskBatchLoader;
+
+    protected BaseTaskFetcher(TaskBatchLoader taskBatchLoader) {
+        this.taskBatchLoader = taskBatchLoader;
+    }
 
-    protected BaseTaskFetcher(ActorRef dataLoaderActor) {
-        this.dataLoaderActor = dataLoaderActor;
+    /**
+     * Load requested tasks through the request scoped {@link DataLoader}, so all fields
+     * of the same request share one batched and de-duplicated load.
+     * Falls back to the direct batch request if there is no such data loader.
+     * Tasks, that are not loaded within the request latency budget or are rejected by the overloaded data loaders,
+     * fail with {@link DataLoadingException}.
+     *
+     * @param environment    fetching environment. Cannot be {@code null}
+     * @param graphQlRequest requested task ids. Cannot be {@code null}
+     * @param attributes     requested attributes. Cannot be {@code null}
+     * @return futures in the same order as requested ids
+     */
+    protected List<CompletableFuture<TaskResponse>> getResponses(DataFetchingEnvironment environment,
+                                                                 List<Integer> graphQlRequest,
+                                                                 Set<String> attributes) {
+        final long remainingNanos = getRemainingNanos(environment);
+        final DataLoader<Integer, TaskResource> dataLoader = environment.getDataLoader(TaskBatchLoader.KEY);
+        if (dataLoader == null) {
+            return getAkkaResponses(graphQlRequest, attributes, remainingNanos);
+        }
+        final List<CompletableFuture<TaskResponse>> results = new ArrayList<>(graphQlRequest.size());
+        graphQlRequest.forEach(id -> results.add(toResponse(id, dataLoader.load(id, attributes), remainingNanos)));
+        return results;
+    }
+
+    /**
+     * Load requested tasks of the streamed field in chunks: the initial ones first, then {@code chunkSize} tasks each,
+     * so every chunk is completed with its own batch request and could be sent without waiting for the others.
+     * The first chunk is loaded with the request data loader, so it is dispatched with the other loads as usual,
+     * the other chunks are requested directly, so dispatching them does not flush the unrelated loads.
+     *
+     * @param environment    fetching environment. Cannot be {@code null}
+     * @param graphQlRequest requested task ids. Cannot be {@code null}
+     * @param attributes     requested attributes. Cannot be {@code null}
+     * @param initialCount   amount of tasks in the initial result
+     * @param chunkSize      amount of tasks in the other chunks. Should be positive
+     * @return futures in the same order as requested ids
+     */
+    protected List<CompletableFuture<TaskResponse>> getStreamedResponses(DataFetchingEnvironment environment,
+                                                                         List<Integer> graphQlRequest,
+                                                                         Set<String> attributes,
+                                                                         int initialCount,
+                                                                         int chunkSize) {
+        final long remainingNanos = getRemainingNanos(environment);
+        final DataLoader<Integer, TaskResource> dataLoader = environment.getDataLoader(TaskBatchLoader.KEY);
+        final List<CompletableFuture<TaskResponse>> results = new ArrayList<>(graphQlRequest.size());
+        int from = 0;
+        while (from < graphQlRequest.size()) {
+            final int to = Math.min(graphQlRequest.size(), from + (from == 0 && initialCount > 0 ? initialCount : chunkSize));
+            final List<Integer> chunk = graphQlRequest.subList(from, to);
+            if (dataLoader != null && from == 0) {
+                chunk.forEach(id -> results.add(toResponse(id, dataLoader.load(id, attributes), remainingNanos)));
+            } else {
+                results.addAll(getAkkaResponses(chunk, attributes, remainingNanos));
+            }
+            from = to;
+        }
+        return results;
     }
 
+    /**
+     * Load all requested tasks with a single batch request to the data loader actor
+     * and fan the result back out into one future per requested id.
+     *
+     * @param graphQlRequest requested task ids. Cannot be {@code null}
+     * @param attributes     requested attributes. Cannot be {@code null}
+     * @return futures in the same order as requested ids
+     */
     protected List<CompletableFuture<TaskResponse>> getAkkaResponses(List<Integer> graphQlRequest, Set<String> attributes) {
-        final List<CompletableFuture<TaskResponse>> results = new ArrayList<>();
-        graphQlRequest.forEach(id -> {
-            final CompletionStage<TaskResource> completionStage = doRequestAndAskStage(id, attributes);
-            results.add(completionStage.exceptionally(error -> {
-                log.error(error.getMessage());
-                throw new GraphQLException(String.format(LOADER_ERROR, id));
-            }).thenApply(resource -> buildResponse(id, resource))
-                    .toCompletableFuture());
-        });
+        return getAkkaResponses(graphQlRequest, attributes, NO_DEADLINE);
+    }
+
+    private List<CompletableFuture<TaskResponse>> getAkkaResponses(List<Integer> graphQlRequest,
+                                                                   Set<String> attributes,
+                                                                   long remainingNanos) {
+        if (graphQlRequest.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final CompletionStage<Map<Integer, TaskResource>> completionStage = remainingNanos == NO_DEADLINE
+                ? taskBatchLoader.load(graphQlRequest, attributes)
+                : taskBatchLoader.load(graphQlRequest, attributes, Duration.ofNanos(remainingNanos));
+        final List<CompletableFuture<TaskResponse>> results = new ArrayList<>(graphQlRequest.size());
+        graphQlRequest.forEach(id -> results.add(toResponse(id, completionStage.thenApply(resources -> resources.get(id)), remainingNanos)));
         return results;
     }
 
-    private static TaskDataRequest createProductDataRequest(Integer id, Set<String> attributes) {
-        TaskDataRequest.Builder builder = TaskDataRequest.newBuilder()
-                .setTraceId(AkkaUtils.generateTraceUUID())
-                .setId(id)
-                .addAllAttributes(attributes);
-        return builder.build();
+    private CompletableFuture<TaskResponse> toResponse(Integer id, CompletionStage<TaskResource> completionStage, long remainingNanos) {
+        CompletableFuture<TaskResponse> response = completionStage
+                .thenApply(resource -> buildResponse(id, resource))
+                .toCompletableFuture();
+        if (remainingNanos != NO_DEADLINE) {
+            // timeout is signalled on the parallel scheduler, so the rest of the request
+            // is not completed on the single JDK delayer thread
+            response = Mono.fromFuture(response)
+                    .timeout(Duration.ofNanos(Math.max(0, remainingNanos)), Schedulers.parallel())
+                    .toFuture();
+        }
+        return response.handle((result, error) -> {
+            if (error == null) {
+                return result;
+            }
+            final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException || cause instanceof AskTimeoutException) {
+                log.debug("Task {} is not loaded within the latency budget", id);
+                throw new DataLoadingException(DataErrorType.DeadlineExceeded, String.format(DEADLINE_ERROR, id));
+            }
+            if (cause instanceof DataLoadingException
+                    && ((DataLoadingException) cause).getErrorType() == DataErrorType.Overloaded) {
+                log.debug("Task {} loading is rejected: {}", id, cause.getMessage());
+                throw new DataLoadingException(DataErrorType.Overloaded, String.format(OVERLOADED_ERROR, id));
+            }
+            log.error(cause.getMessage());
+            throw new DataLoadingException(DataErrorType.DataLoadingFailed, String.format(LOADER_ERROR, id));
+        });
     }
 
-    private CompletionStage<TaskResource> doRequestAndAskStage(Integer id, Set<String> attributes) {
-        TaskDataRequest dataRequest = createProductDataRequest(id, attributes);
-        return ask(dataLoaderActor, dataRequest,
-                Duration.ofMillis(1000))
-                .thenApply(response -> {
-                    if(response instanceof EmptyResponse) {
-                        return null;
-                    } else {
-                        final TaskEntity entity = ((TaskDataResponse) response).getEntity();
-                        StatusResource statusResource = null;
-                        if (entity.hasStatus()) {
-                            statusResource = new StatusResource(entity.getStatus().getCode(),
-                                    entity.getStatus().getDescription());
-                        }
-                        return new TaskResource(entity.getId(), entity.getName(), statusResource);
-                    }
-                });
+    /**
+     * Add the error of the task, that could not be loaded. The task is returned as {@code null} item of the list,
+     * so the error path is the path of the item, the same as for the streamed items
+     *
+     * @param environment fetching environment. Cannot be {@code null}
+     * @param index       index of the task in the requested ids
+     * @param error       loading error. Cannot be {@code null}
+     * @param errors      errors of the response, the task error is added to. Cannot be {@code null}
+     */
+    protected void addItemError(DataFetchingEnvironment environment,
+                                int index,
+                                Throwable error,
+                                List<GraphQLError> errors) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        final ExecutionPath path = environment.getExecutionStepInfo().getPath().segment(index);
+        errors.add(cause instanceof DataLoadingException
+                ? ((DataLoadingException) cause).toError(path, environment.getField().getSourceLocation())
+                : new ExceptionWhileDataFetching(path, cause, environment.getField().getSourceLocation()));
     }
 
     protected TaskResponse buildResponse(Integer id, TaskResource resource) {
@@ -79,4 +183,11 @@ class BaseTaskFetcher {
                 .setTask(resource)
                 .build();
     }
+
+    private static long getRemainingNanos(DataFetchingEnvironment environment) {
+        final Object localContext = environment.getLocalContext();
+        return localContext instanceof GraphQLExecutionLocalContext
+                ? ((GraphQLExecutionLocalContext) localContext).getDeadlineNanos() - System.nanoTime()
+                : NO_DEADLINE;
+    }
 }
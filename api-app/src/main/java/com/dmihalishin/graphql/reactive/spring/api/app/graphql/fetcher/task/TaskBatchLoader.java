@@ -0,0 +1,174 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.task;
+
+import akka.actor.ActorRef;
+import akka.pattern.AskTimeoutException;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.AkkaConfig;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLBatchLoader;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLExecutionLocalContext;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.EmptyResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskEntity;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support.InstrumentedAsk;
+import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.StatusResource;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResource;
+import org.dataloader.BatchLoaderEnvironment;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Task Batch Loader.
+ * Loads all requested tasks with a single batch request to the data loader actor.
+ * Requested attributes are passed as a key context.
+ *
+ * @see GraphQLBatchLoader
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+public class TaskBatchLoader implements GraphQLBatchLoader<Integer, TaskResource> {
+
+    public static final String KEY = "taskLoader";
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(1000);
+
+    private final ActorRef dataLoaderActor;
+
+    private final InstrumentedAsk instrumentedAsk;
+
+    public TaskBatchLoader(@Qualifier(AkkaConfig.DATA_ACTOR_REF_NAME) final ActorRef dataLoaderActor,
+                           final InstrumentedAsk instrumentedAsk) {
+        this.dataLoaderActor = dataLoaderActor;
+        this.instrumentedAsk = instrumentedAsk;
+    }
+
+    @Override
+    public String getLoaderKey() {
+        return KEY;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see GraphQLBatchLoader#load(List, BatchLoaderEnvironment)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletionStage<List<TaskResource>> load(final List<Integer> keys,
+                                                    final BatchLoaderEnvironment environment) {
+        final Set<String> attributes = new HashSet<>();
+        environment.getKeyContextsList().forEach(context -> {
+            if (context instanceof Collection) {
+                attributes.addAll((Collection<String>) context);
+            }
+        });
+        return load(keys, attributes, getTimeout(environment.getContext())).thenApply(resources -> {
+            final List<TaskResource> results = new ArrayList<>(keys.size());
+            keys.forEach(key -> results.add(resources.get(key)));
+            return results;
+        });
+    }
+
+    /**
+     * Load tasks with a single batch request to the data loader actor.
+     *
+     * @param ids        requested task ids. Cannot be {@code null}
+     * @param attributes requested attributes. Cannot be {@code null}
+     * @return loaded tasks by id. Tasks that do not exist are absent
+     */
+    public CompletionStage<Map<Integer, TaskResource>> load(final Collection<Integer> ids,
+                                                            final Set<String> attributes) {
+        return load(ids, attributes, DEFAULT_TIMEOUT, false);
+    }
+
+    /**
+     * Load tasks from the store, bypassing the task caches, with a single batch request to the data loader actor.
+     * Cached tasks could be stale right after the change, till the invalidation reaches the task owner node.
+     *
+     * @param ids        requested task ids. Cannot be {@code null}
+     * @param attributes requested attributes. Cannot be {@code null}
+     * @return loaded tasks by id. Tasks that do not exist are absent
+     */
+    public CompletionStage<Map<Integer, TaskResource>> loadUncached(final Collection<Integer> ids,
+                                                                    final Set<String> attributes) {
+        return load(ids, attributes, DEFAULT_TIMEOUT, true);
+    }
+
+    /**
+     * Load tasks with a single batch request to the data loader actor within the timeout.
+     *
+     * @param ids        requested task ids. Cannot be {@code null}
+     * @param attributes requested attributes. Cannot be {@code null}
+     * @param timeout    response timeout. Cannot be {@code null}
+     * @return loaded tasks by id. Tasks that do not exist are absent.
+     * Fails with {@link AskTimeoutException} if there is no response within the timeout
+     */
+    public CompletionStage<Map<Integer, TaskResource>> load(final Collection<Integer> ids,
+                                                            final Set<String> attributes,
+                                                            final Duration timeout) {
+        return load(ids, attributes, timeout, false);
+    }
+
+    private CompletionStage<Map<Integer, TaskResource>> load(final Collection<Integer> ids,
+                                                             final Set<String> attributes,
+                                                             final Duration timeout,
+                                                             final boolean bypassCache) {
+        if (timeout.isZero() || timeout.isNegative()) {
+            return CompletableFuture.failedFuture(new AskTimeoutException("Task batch load timeout is exceeded"));
+        }
+        final TaskBatchDataRequest dataRequest = TaskBatchDataRequest.newBuilder()
+                .setCorrelationId(AkkaUtils.nextCorrelationId())
+                // the same id could be requested several times, but it should be loaded only once
+                .addAllIds(new LinkedHashSet<>(ids))
+                .addAllAttributes(attributes)
+                .setBypassCache(bypassCache)
+                .build();
+        return instrumentedAsk.ask(dataLoaderActor, dataRequest, timeout)
+                .thenApply(response -> {
+                    if (response instanceof EmptyResponse) {
+                        return Collections.emptyMap();
+                    } else {
+                        final List<TaskEntity> entities = ((TaskBatchDataResponse) response).getEntitiesList();
+                        final Map<Integer, TaskResource> resources = new HashMap<>(entities.size() * 2);
+                        entities.forEach(entity -> resources.put(entity.getId(), buildResource(entity)));
+                        return resources;
+                    }
+                });
+    }
+
+    /**
+     * Retrieves remaining time of the request latency budget
+     *
+     * @param context batch loader context. Can be {@code null}
+     * @return remaining time of the request, or the default timeout if the request has no deadline
+     */
+    static Duration getTimeout(final Object context) {
+        if (!(context instanceof GraphQLExecutionLocalContext)) {
+            return DEFAULT_TIMEOUT;
+        }
+        return Duration.ofNanos(((GraphQLExecutionLocalContext) context).getDeadlineNanos() - System.nanoTime());
+    }
+
+    private static TaskResource buildResource(final TaskEntity entity) {
+        StatusResource statusResource = null;
+        if (entity.hasStatus()) {
+            statusResource = new StatusResource(entity.getStatus().getCode(),
+                    entity.getStatus().getDescription());
+        }
+        return new TaskResource(entity.getId(), entity.getName(), statusResource);
+    }
+}
@@ -0,0 +1,115 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.task;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.pubsub.DistributedPubSub;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.TaskSubscriptionConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.TaskInvalidationActor;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResource;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cluster wide feed of the task changes.
+ * Changed task ids are received from the distributed pub/sub topic of the task invalidations,
+ * each change is loaded once and multicast to all subscribers of the shared {@link Flux}.
+ * Changes are loaded from the store: the cached task could be stale, till the invalidation reaches its owner node.
+ * Nothing is loaded while there are no subscribers.
+ * Invalidations waiting for the loads are buffered with the bounded buffer, the oldest ones are dropped above it.
+ *
+ * @see TaskInvalidationActor
+ * @see TaskSubscriptionFetcher
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+@Slf4j
+public class TaskChangeFeed {
+
+    public static final String ACTOR_NAME = "taskChangeFeedActor";
+
+    private static final Set<String> ALL_ATTRIBUTES = Set.of("id", "name", "status");
+
+    private final AtomicReference<FluxSink<List<Integer>>> sink = new AtomicReference<>();
+
+    private final Flux<TaskResponse> changes;
+
+    /**
+     * TaskChangeFeed constructor
+     *
+     * @param system          actor system. Cannot be {@code null}
+     * @param taskBatchLoader loader of the changed tasks. Cannot be {@code null}
+     * @param configuration   subscriptions configuration. Cannot be {@code null}
+     */
+    public TaskChangeFeed(final ActorSystem system,
+                          final TaskBatchLoader taskBatchLoader,
+                          final TaskSubscriptionConfiguration configuration) {
+        // invalidations are buffered only by the bounded buffer, it requests all of them from the sink
+        this.changes = Flux.<List<Integer>>create(this::connect, FluxSink.OverflowStrategy.IGNORE)
+                .onBackpressureBuffer(configuration.getFeedBufferSize(),
+                        dropped -> log.warn("Task changes {} dropped: changes are loaded slower than invalidated", dropped),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .concatMap(ids -> Mono.fromCompletionStage(taskBatchLoader.loadUncached(ids, ALL_ATTRIBUTES))
+                        .flatMapIterable(resources -> toResponses(ids, resources))
+                        .onErrorResume(error -> {
+                            // subscribers should not be terminated because of a single failed load
+                            log.error("Cannot load changed tasks {}: {}", ids, error.getMessage());
+                            return Flux.empty();
+                        }))
+                .share();
+        final ActorRef subscriber = system.actorOf(
+                Props.create(TaskInvalidationActor.class, () -> new TaskInvalidationActor(this::publish)),
+                ACTOR_NAME);
+        DistributedPubSub.get(system).mediator()
+                .tell(new DistributedPubSubMediator.Subscribe(TaskInvalidationActor.TOPIC, subscriber), subscriber);
+    }
+
+    /**
+     * Retrieves changes of all tasks.
+     * The flux is shared: all subscribers receive the same loaded changes, the slowest subscriber
+     * must limit its own buffer, otherwise it holds back the others.
+     *
+     * @return hot flux of the changed tasks. Task is {@code null} if it does not exist anymore
+     */
+    public Flux<TaskResponse> changes() {
+        return changes;
+    }
+
+    private void connect(final FluxSink<List<Integer>> connected) {
+        sink.set(connected);
+        connected.onDispose(() -> sink.compareAndSet(connected, null));
+    }
+
+    private void publish(final Iterable<Integer> ids) {
+        final FluxSink<List<Integer>> current = sink.get();
+        if (current != null) {
+            final List<Integer> changed = new ArrayList<>();
+            ids.forEach(changed::add);
+            current.next(changed);
+        }
+    }
+
+    private static List<TaskResponse> toResponses(final List<Integer> ids, final Map<Integer, TaskResource> resources) {
+        final Set<Integer> uniqueIds = new LinkedHashSet<>(ids);
+        final List<TaskResponse> responses = new ArrayList<>(uniqueIds.size());
+        uniqueIds.forEach(id -> responses.add(TaskResponse.builder()
+                .setKey(id)
+                .setTask(resources.get(id))
+                .build()));
+        return responses;
+    }
+}
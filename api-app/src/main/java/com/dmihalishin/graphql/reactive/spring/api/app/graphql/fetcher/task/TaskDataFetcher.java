@@ -1,8 +1,8 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.task;
 
-import akka.actor.ActorRef;
-import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.AkkaConfig;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.GraphQLIncrementalConfiguration;
 import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLDataFetcher;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental.StreamDirective;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.EmptyResponse;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataRequest;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataResponse;
@@ -11,14 +11,13 @@ import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.StatusResource;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResource;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResponse;
+import graphql.GraphQLError;
 import graphql.GraphQLException;
 import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -35,8 +34,12 @@ import static akka.pattern.Patterns.ask;
 public class TaskDataFetcher extends BaseTaskFetcher implements GraphQLDataFetcher<TaskResponse> {
     private static final String REQUEST_NAME = "ids";
 
-    public TaskDataFetcher(@Qualifier(AkkaConfig.DATA_ACTOR_REF_NAME) ActorRef dataLoaderActor) {
-        super(dataLoaderActor);
+    private final GraphQLIncrementalConfiguration incrementalConfiguration;
+
+    public TaskDataFetcher(TaskBatchLoader taskBatchLoader,
+                           GraphQLIncrementalConfiguration incrementalConfiguration) {
+        super(taskBatchLoader);
+        this.incrementalConfiguration = incrementalConfiguration;
     }
 
     @Override
@@ -51,8 +54,32 @@ public class TaskDataFetcher extends BaseTaskFetcher implements GraphQLDataFetch
 
         final DataFetcherResult.Builder<List<CompletableFuture<TaskResponse>>> builder = DataFetcherResult.newResult();
 
-        final List<CompletableFuture<TaskResponse>> results = getAkkaResponses(graphQlRequest, attributes);
-        builder.data(results);
-        return Mono.just(builder.build()).toFuture();
+        final int initialCount = StreamDirective.initialCount(environment.getGraphQLSchema(),
+                environment.getMergedField(), environment.getVariables());
+        final List<CompletableFuture<TaskResponse>> results = initialCount == StreamDirective.NOT_STREAMED
+                ? getResponses(environment, graphQlRequest, attributes)
+                : getStreamedResponses(environment, graphQlRequest, attributes, initialCount,
+                Math.max(1, incrementalConfiguration.getStreamChunkSize()));
+        // the initial tasks are awaited, so the ones missing the latency budget are returned as null items with errors,
+        // streamed tasks are sent on their own
+        final int awaited = initialCount == StreamDirective.NOT_STREAMED ? results.size() : Math.min(initialCount, results.size());
+        return CompletableFuture.allOf(results.subList(0, awaited).toArray(new CompletableFuture[0]))
+                .handle((ignored, allErrors) -> {
+                    final List<CompletableFuture<TaskResponse>> data = new ArrayList<>(results.size());
+                    final List<GraphQLError> errors = new ArrayList<>();
+                    for (int index = 0; index < awaited; index++) {
+                        final CompletableFuture<TaskResponse> result = results.get(index);
+                        if (result.isCompletedExceptionally()) {
+                            final Throwable error = result.handle((response, e) -> e).join();
+                            addItemError(environment, index, error, errors);
+                            // future items are unwrapped by the field fetchers, so only the plain null is a null item
+                            data.add(null);
+                        } else {
+                            data.add(result);
+                        }
+                    }
+                    data.addAll(results.subList(awaited, results.size()));
+                    return builder.data(data).errors(errors).build();
+                });
     }
 }
@@ -1,47 +1,62 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.task;
 
-import akka.actor.ActorRef;
-import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.AkkaConfig;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.TaskSubscriptionConfiguration;
 import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLSubscriptionFetcher;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResponse;
 import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+/**
+ * Task Subscription Fetcher.
+ * Streams changes of the requested tasks from the shared {@link TaskChangeFeed},
+ * so subscribers do not produce any additional load of the backend.
+ * Each subscriber has its own bounded buffer, overflow is handled according to the configuration.
+ *
+ * @see TaskChangeFeed
+ * @see TaskSubscriptionConfiguration
+ */
 @Profile("!TestWithoutGraphQL")
 @Component
 @Slf4j
-public class TaskSubscriptionFetcher extends BaseTaskFetcher implements GraphQLSubscriptionFetcher<TaskResponse> {
+public class TaskSubscriptionFetcher implements GraphQLSubscriptionFetcher<TaskResponse> {
 
-    public TaskSubscriptionFetcher(@Qualifier(AkkaConfig.DATA_ACTOR_REF_NAME) ActorRef dataLoaderActor) {
-        super(dataLoaderActor);
+    private static final String REQUEST_NAME = "ids";
+
+    private final TaskChangeFeed taskChangeFeed;
+
+    private final TaskSubscriptionConfiguration configuration;
+
+    public TaskSubscriptionFetcher(final TaskChangeFeed taskChangeFeed,
+                                   final TaskSubscriptionConfiguration configuration) {
+        this.taskChangeFeed = taskChangeFeed;
+        this.configuration = configuration;
     }
 
     @Override
     public String getQueryKey() {
-        return KEY;
+        return BaseTaskFetcher.KEY;
     }
 
     @Override
     public Publisher<DataFetcherResult<TaskResponse>> get(DataFetchingEnvironment environment) {
-        final Set<String> attributeList = environment
-                .getSelectionSet()
-                .getArguments()
-                .keySet();
-
-        // return publisher from akka responses
-        return Flux.fromIterable(getAkkaResponses(IntStream.range(50, 60).boxed().collect(Collectors.toList()), attributeList))
-                .flatMap(Mono::fromFuture)
+        final List<Integer> ids = environment.getArgument(REQUEST_NAME);
+
+        Flux<TaskResponse> changes = taskChangeFeed.changes();
+        if (ids != null) {
+            final Set<Integer> requested = new HashSet<>(ids);
+            changes = changes.filter(response -> requested.contains(response.getKey()));
+        }
+        return withOverflow(changes)
                 .map(response -> {
                     DataFetcherResult.Builder<TaskResponse> builder = DataFetcherResult.newResult();
                     return builder
@@ -50,4 +65,17 @@ public class TaskSubscriptionFetcher extends BaseTaskFetcher implements GraphQLS
                 });
     }
 
+    private Flux<TaskResponse> withOverflow(final Flux<TaskResponse> changes) {
+        switch (configuration.getOverflow()) {
+            case LATEST:
+                // only the latest change is kept, so the buffer size is not used
+                return changes.onBackpressureLatest();
+            case ERROR:
+                return changes.onBackpressureBuffer(configuration.getBufferSize());
+            default:
+                return changes.onBackpressureBuffer(configuration.getBufferSize(),
+                        dropped -> log.debug("Task {} change dropped for slow subscriber", dropped.getKey()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+        }
+    }
 }
@@ -0,0 +1,177 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.DataLoadingException;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLExecutionLocalContext;
+import graphql.DeferredExecutionResultImpl;
+import graphql.ExceptionWhileDataFetching;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLError;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionPath;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.ExecutionStepInfoFactory;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.FieldValueInfo;
+import graphql.execution.NonNullableFieldValidator;
+import graphql.execution.NonNullableFieldWasNullError;
+import graphql.execution.NonNullableFieldWasNullException;
+import graphql.execution.defer.DeferredErrorSupport;
+import graphql.language.OperationDefinition;
+import graphql.language.SourceLocation;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Query execution strategy with {@code @stream} support.
+ * The initial result of the streamed list field contains only the first {@code initialCount} items,
+ * each of the other items is completed independently and sent as a separate payload
+ * ({@code data} and {@code path} of the item) to the request {@link IncrementalResults}, as soon as it is ready.
+ * Items, that are futures, are awaited first, so failed item is sent as {@code null} with its error.
+ * Lists are completed as usual, when the request has no {@link IncrementalResults}. Subscription operations
+ * never use the request {@link IncrementalResults}: their response is already the stream of events,
+ * so payloads added there would never be sent and the streamed items would be lost.
+ *
+ * @see StreamDirective
+ * @see AsyncExecutionStrategy
+ */
+public class IncrementalExecutionStrategy extends AsyncExecutionStrategy {
+
+    private final ExecutionStepInfoFactory stepInfoFactory = new ExecutionStepInfoFactory();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see AsyncExecutionStrategy#completeValueForList(ExecutionContext, ExecutionStrategyParameters, Iterable)
+     */
+    @Override
+    protected FieldValueInfo completeValueForList(final ExecutionContext executionContext,
+                                                  final ExecutionStrategyParameters parameters,
+                                                  final Iterable<Object> iterableValues) {
+        final IncrementalResults incrementalResults = getIncrementalResults(executionContext);
+        // nested lists of the streamed field are not streamed
+        if (incrementalResults == null || !(iterableValues instanceof List) || parameters.getPath().isListSegment()) {
+            return super.completeValueForList(executionContext, parameters, iterableValues);
+        }
+        final List<Object> values = (List<Object>) iterableValues;
+        final int initialCount = StreamDirective.initialCount(executionContext.getGraphQLSchema(),
+                parameters.getField(), executionContext.getVariables());
+        if (initialCount == StreamDirective.NOT_STREAMED || initialCount >= values.size()) {
+            return super.completeValueForList(executionContext, parameters, iterableValues);
+        }
+        for (int index = initialCount; index < values.size(); index++) {
+            incrementalResults.add(Mono.fromFuture(completeItem(executionContext, parameters, values.get(index), index, values.size())));
+        }
+        return super.completeValueForList(executionContext, parameters, new ArrayList<>(values.subList(0, initialCount)));
+    }
+
+    private CompletableFuture<ExecutionResult> completeItem(final ExecutionContext executionContext,
+                                                           final ExecutionStrategyParameters parameters,
+                                                           final Object item,
+                                                           final int index,
+                                                           final int size) {
+        if (!(item instanceof CompletionStage)) {
+            return completeItemValue(executionContext, parameters, item, index, size);
+        }
+        // item is sent when it is loaded, item that could not be loaded is sent as null with the error
+        return ((CompletionStage<?>) item).toCompletableFuture()
+                .handle((value, error) -> error == null
+                        ? completeItemValue(executionContext, parameters, value, index, size)
+                        : CompletableFuture.completedFuture(toPayload(parameters.getPath().segment(index),
+                        Collections.singletonList(toError(parameters, index, error)))))
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<ExecutionResult> completeItemValue(final ExecutionContext executionContext,
+                                                                final ExecutionStrategyParameters parameters,
+                                                                final Object item,
+                                                                final int index,
+                                                                final int size) {
+        final ExecutionPath path = parameters.getPath().segment(index);
+        final ExecutionStepInfo stepInfo = stepInfoFactory.newExecutionStepInfoForListElement(parameters.getExecutionStepInfo(), index);
+        final DeferredErrorSupport errorSupport = new DeferredErrorSupport();
+        Object source = item;
+        Object localContext = parameters.getLocalContext();
+        if (item instanceof DataFetcherResult) {
+            final DataFetcherResult<?> result = (DataFetcherResult<?>) item;
+            result.getErrors().forEach(errorSupport::onError);
+            source = result.getData();
+            if (result.getLocalContext() != null) {
+                localContext = result.getLocalContext();
+            }
+        }
+        final Object itemSource = source;
+        final Object itemLocalContext = localContext;
+        final ExecutionStrategyParameters itemParameters = parameters.transform(builder -> builder
+                .executionStepInfo(stepInfo)
+                .nonNullFieldValidator(new NonNullableFieldValidator(executionContext, stepInfo))
+                .listSize(size)
+                .currentListIndex(index)
+                .path(path)
+                .localContext(itemLocalContext)
+                .source(itemSource)
+                .deferredErrorSupport(errorSupport));
+        CompletableFuture<ExecutionResult> value;
+        try {
+            value = completeValue(executionContext, itemParameters).getFieldValue();
+        } catch (NonNullableFieldWasNullException e) {
+            value = new CompletableFuture<>();
+            value.completeExceptionally(e);
+        }
+        return value.<ExecutionResult>handle((result, error) -> {
+            final Throwable cause = unwrap(error);
+            if (cause instanceof NonNullableFieldWasNullException) {
+                errorSupport.onError(new NonNullableFieldWasNullError((NonNullableFieldWasNullException) cause));
+                return toPayload(path, errorSupport.getErrors());
+            }
+            if (cause != null) {
+                throw new CompletionException(cause);
+            }
+            return DeferredExecutionResultImpl.newDeferredExecutionResult()
+                    .from(result)
+                    .path(path)
+                    .addErrors(errorSupport.getErrors())
+                    .build();
+        });
+    }
+
+    private static ExecutionResult toPayload(final ExecutionPath path, final List<GraphQLError> errors) {
+        return DeferredExecutionResultImpl.newDeferredExecutionResult()
+                .from(new ExecutionResultImpl(null, null))
+                .path(path)
+                .addErrors(errors)
+                .build();
+    }
+
+    private static GraphQLError toError(final ExecutionStrategyParameters parameters, final int index, final Throwable error) {
+        final Throwable cause = unwrap(error);
+        final ExecutionPath path = parameters.getPath().segment(index);
+        final SourceLocation location = parameters.getField().getSingleField().getSourceLocation();
+        return cause instanceof DataLoadingException
+                ? ((DataLoadingException) cause).toError(path, location)
+                : new ExceptionWhileDataFetching(path, cause, location);
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static IncrementalResults getIncrementalResults(final ExecutionContext executionContext) {
+        if (executionContext.getOperationDefinition().getOperation() == OperationDefinition.Operation.SUBSCRIPTION) {
+            return null;
+        }
+        final Object localContext = executionContext.getLocalContext();
+        return localContext instanceof GraphQLExecutionLocalContext
+                ? ((GraphQLExecutionLocalContext) localContext).getIncrementalResults()
+                : null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental;
+
+import graphql.ExecutionResult;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.UnicastProcessor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request scoped collector of the incremental payloads.
+ * Payloads of every added publisher are emitted as soon as they are ready, in the order of completion.
+ * Results are completed, when the initial result and all added publishers are completed,
+ * so payloads could be added by the other payloads (e.g. streamed items of a deferred field).
+ *
+ * @see IncrementalExecutionStrategy
+ */
+public class IncrementalResults {
+
+    // the initial result is pending till it is completed
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private volatile UnicastProcessor<ExecutionResult> processor;
+
+    private volatile FluxSink<ExecutionResult> sink;
+
+    /**
+     * Add publisher of the incremental payloads
+     *
+     * @param payloads incremental payloads. Cannot be {@code null}
+     */
+    public void add(final Publisher<? extends ExecutionResult> payloads) {
+        pending.incrementAndGet();
+        final FluxSink<ExecutionResult> current = getSink();
+        Flux.from(payloads).subscribe(current::next, current::error, this::done);
+    }
+
+    /**
+     * Mark the initial result as completed, no payloads are added after the last pending one is completed
+     */
+    public void initialResultCompleted() {
+        done();
+    }
+
+    /**
+     * @return incremental payloads, completed when all payloads are emitted
+     */
+    public Flux<ExecutionResult> results() {
+        final UnicastProcessor<ExecutionResult> current = processor;
+        return current == null ? Flux.empty() : current;
+    }
+
+    private synchronized FluxSink<ExecutionResult> getSink() {
+        if (sink == null) {
+            final UnicastProcessor<ExecutionResult> created = UnicastProcessor.create();
+            sink = created.sink();
+            processor = created;
+        }
+        return sink;
+    }
+
+    private void done() {
+        if (pending.decrementAndGet() == 0 && processor != null) {
+            getSink().complete();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental;
+
+import graphql.execution.MergedField;
+import graphql.execution.ValuesResolver;
+import graphql.language.Directive;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLSchema;
+
+import java.util.Map;
+
+/**
+ * {@code @stream(if: Boolean = true, initialCount: Int = 0)} directive of the list fields.
+ * Items after the initial count are sent as separate payloads.
+ *
+ * @see IncrementalExecutionStrategy
+ */
+public final class StreamDirective {
+
+    public static final String NAME = "stream";
+
+    static final String IF_ARGUMENT = "if";
+
+    static final String INITIAL_COUNT_ARGUMENT = "initialCount";
+
+    /**
+     * Not streamed field
+     */
+    public static final int NOT_STREAMED = -1;
+
+    private static final ValuesResolver VALUES_RESOLVER = new ValuesResolver();
+
+    private StreamDirective() {
+    }
+
+    /**
+     * Get amount of the list items in the initial result
+     *
+     * @param schema    GraphQL schema. Cannot be {@code null}
+     * @param field     list field. Cannot be {@code null}
+     * @param variables query variables. Cannot be {@code null}
+     * @return initial count, or {@link #NOT_STREAMED} if the field is not streamed
+     */
+    public static int initialCount(final GraphQLSchema schema, final MergedField field, final Map<String, Object> variables) {
+        final Directive directive = field.getSingleField().getDirective(NAME);
+        final GraphQLDirective definition = schema.getDirective(NAME);
+        if (directive == null || definition == null) {
+            return NOT_STREAMED;
+        }
+        final Map<String, Object> arguments = VALUES_RESOLVER.getArgumentValues(
+                definition.getArguments(), directive.getArguments(), variables);
+        if (Boolean.FALSE.equals(arguments.get(IF_ARGUMENT))) {
+            return NOT_STREAMED;
+        }
+        final Object initialCount = arguments.get(INITIAL_COUNT_ARGUMENT);
+        return initialCount instanceof Integer ? Math.max(0, (Integer) initialCount) : 0;
+    }
+}
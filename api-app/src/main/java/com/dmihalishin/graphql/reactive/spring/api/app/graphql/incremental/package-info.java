@@ -0,0 +1,4 @@
+/**
+ * Incremental delivery ({@code @defer} and {@code @stream}) of the GraphQL results should be located in this package
+ */
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.incremental;
@@ -0,0 +1,225 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.instrumentation;
+
+import graphql.execution.instrumentation.DocumentAndVariables;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@code @defer} support of the fragments.
+ * GraphQL engine defers only fields, so {@code @defer} of a fragment is moved to every field of the fragment
+ * (fields of the nested fragments included), and deferred fragment spreads are replaced by inline fragments.
+ * Fields of the same deferred fragment are sent as separate payloads.
+ * <p>
+ * Document is rewritten once after parsing, before validation, so the rewritten document is cached.
+ *
+ * @see SimpleInstrumentation
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+public class DeferredFragmentInstrumentation extends SimpleInstrumentation {
+
+    static final String DEFER_DIRECTIVE = "defer";
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see SimpleInstrumentation#instrumentDocumentAndVariables(DocumentAndVariables, InstrumentationExecutionParameters)
+     */
+    @Override
+    public DocumentAndVariables instrumentDocumentAndVariables(final DocumentAndVariables documentAndVariables,
+                                                               final InstrumentationExecutionParameters parameters) {
+        final Document document = documentAndVariables.getDocument();
+        final Rewriter rewriter = new Rewriter(document);
+        final Document rewritten = rewriter.rewrite();
+        if (rewritten == document) {
+            return documentAndVariables;
+        }
+        return documentAndVariables.transform(builder -> builder.document(rewritten));
+    }
+
+    /**
+     * Single document rewriter
+     */
+    private static final class Rewriter {
+
+        private final Document document;
+        private final Map<String, FragmentDefinition> fragments = new HashMap<>();
+        private final Set<String> inlinedFragments = new HashSet<>();
+        private final Set<String> visiting = new HashSet<>();
+
+        private Rewriter(final Document document) {
+            this.document = document;
+            document.getDefinitionsOfType(FragmentDefinition.class)
+                    .forEach(fragment -> fragments.putIfAbsent(fragment.getName(), fragment));
+        }
+
+        private Document rewrite() {
+            final List<Definition> definitions = new ArrayList<>(document.getDefinitions().size());
+            boolean changed = false;
+            for (final Definition definition : document.getDefinitions()) {
+                Definition rewritten = definition;
+                if (definition instanceof OperationDefinition) {
+                    final OperationDefinition operation = (OperationDefinition) definition;
+                    final SelectionSet selectionSet = rewrite(operation.getSelectionSet());
+                    if (selectionSet != operation.getSelectionSet()) {
+                        rewritten = operation.transform(builder -> builder.selectionSet(selectionSet));
+                    }
+                } else if (definition instanceof FragmentDefinition) {
+                    final FragmentDefinition fragment = (FragmentDefinition) definition;
+                    final SelectionSet selectionSet = rewrite(fragment.getSelectionSet());
+                    if (selectionSet != fragment.getSelectionSet()) {
+                        rewritten = fragment.transform(builder -> builder.selectionSet(selectionSet));
+                    }
+                }
+                changed |= rewritten != definition;
+                definitions.add(rewritten);
+            }
+            if (!changed) {
+                return document;
+            }
+            // fragments that are not spread anymore would fail the "no unused fragments" validation
+            final Set<String> spreads = new HashSet<>();
+            definitions.forEach(definition -> collectSpreads(definition, spreads));
+            final List<Definition> usedDefinitions = definitions.stream()
+                    .filter(definition -> !(definition instanceof FragmentDefinition)
+                            || !inlinedFragments.contains(((FragmentDefinition) definition).getName())
+                            || spreads.contains(((FragmentDefinition) definition).getName()))
+                    .collect(Collectors.toList());
+            return document.transform(builder -> builder.definitions(usedDefinitions));
+        }
+
+        private SelectionSet rewrite(final SelectionSet selectionSet) {
+            if (selectionSet == null) {
+                return null;
+            }
+            final List<Selection> selections = new ArrayList<>(selectionSet.getSelections().size());
+            boolean changed = false;
+            for (final Selection<?> selection : selectionSet.getSelections()) {
+                final Selection<?> rewritten = rewrite(selection);
+                changed |= rewritten != selection;
+                selections.add(rewritten);
+            }
+            return changed ? selectionSet.transform(builder -> builder.selections(selections)) : selectionSet;
+        }
+
+        private Selection<?> rewrite(final Selection<?> selection) {
+            if (selection instanceof Field) {
+                final Field field = (Field) selection;
+                final SelectionSet selectionSet = rewrite(field.getSelectionSet());
+                return selectionSet == field.getSelectionSet() ? field : field.transform(builder -> builder.selectionSet(selectionSet));
+            }
+            if (selection instanceof InlineFragment) {
+                final InlineFragment fragment = (InlineFragment) selection;
+                final SelectionSet selectionSet = rewrite(fragment.getSelectionSet());
+                final Directive defer = fragment.getDirective(DEFER_DIRECTIVE);
+                if (defer == null) {
+                    return selectionSet == fragment.getSelectionSet() ? fragment : fragment.transform(builder -> builder.selectionSet(selectionSet));
+                }
+                return fragment.transform(builder -> builder
+                        .directives(withoutDefer(fragment.getDirectives()))
+                        .selectionSet(defer(selectionSet, defer)));
+            }
+            final FragmentSpread spread = (FragmentSpread) selection;
+            final Directive defer = spread.getDirective(DEFER_DIRECTIVE);
+            final FragmentDefinition definition = fragments.get(spread.getName());
+            // unknown and cyclic fragments are left as is, they are rejected by the validation
+            if (defer == null || definition == null || visiting.contains(spread.getName())) {
+                return spread;
+            }
+            inlinedFragments.add(spread.getName());
+            return toInlineFragment(spread, withoutDefer(spread.getDirectives()), defer);
+        }
+
+        private InlineFragment toInlineFragment(final FragmentSpread spread, final List<Directive> directives, final Directive defer) {
+            final FragmentDefinition definition = fragments.get(spread.getName());
+            visiting.add(spread.getName());
+            try {
+                return InlineFragment.newInlineFragment()
+                        .typeCondition(definition.getTypeCondition())
+                        .directives(directives)
+                        .selectionSet(defer(rewrite(definition.getSelectionSet()), defer))
+                        .sourceLocation(spread.getSourceLocation())
+                        .build();
+            } finally {
+                visiting.remove(spread.getName());
+            }
+        }
+
+        private SelectionSet defer(final SelectionSet selectionSet, final Directive defer) {
+            final List<Selection> selections = new ArrayList<>(selectionSet.getSelections().size());
+            for (final Selection<?> selection : selectionSet.getSelections()) {
+                if (selection instanceof Field) {
+                    final Field field = (Field) selection;
+                    if (field.getDirective(DEFER_DIRECTIVE) == null) {
+                        final List<Directive> directives = new ArrayList<>(field.getDirectives());
+                        directives.add(defer);
+                        selections.add(field.transform(builder -> builder.directives(directives)));
+                    } else {
+                        selections.add(field);
+                    }
+                } else if (selection instanceof InlineFragment) {
+                    final InlineFragment fragment = (InlineFragment) selection;
+                    selections.add(fragment.transform(builder -> builder.selectionSet(defer(fragment.getSelectionSet(), defer))));
+                } else {
+                    final FragmentSpread spread = (FragmentSpread) selection;
+                    if (!fragments.containsKey(spread.getName()) || visiting.contains(spread.getName())) {
+                        selections.add(spread);
+                    } else {
+                        inlinedFragments.add(spread.getName());
+                        selections.add(toInlineFragment(spread, spread.getDirectives(), defer));
+                    }
+                }
+            }
+            return selectionSet.transform(builder -> builder.selections(selections));
+        }
+
+        private static List<Directive> withoutDefer(final List<Directive> directives) {
+            return directives.stream()
+                    .filter(directive -> !DEFER_DIRECTIVE.equals(directive.getName()))
+                    .collect(Collectors.toList());
+        }
+
+        private static void collectSpreads(final Definition<?> definition, final Set<String> spreads) {
+            if (definition instanceof OperationDefinition) {
+                collectSpreads(((OperationDefinition) definition).getSelectionSet(), spreads);
+            } else if (definition instanceof FragmentDefinition) {
+                collectSpreads(((FragmentDefinition) definition).getSelectionSet(), spreads);
+            }
+        }
+
+        private static void collectSpreads(final SelectionSet selectionSet, final Set<String> spreads) {
+            if (selectionSet == null) {
+                return;
+            }
+            for (final Selection<?> selection : selectionSet.getSelections()) {
+                if (selection instanceof Field) {
+                    collectSpreads(((Field) selection).getSelectionSet(), spreads);
+                } else if (selection instanceof InlineFragment) {
+                    collectSpreads(((InlineFragment) selection).getSelectionSet(), spreads);
+                } else if (selection instanceof FragmentSpread) {
+                    spreads.add(((FragmentSpread) selection).getName());
+                }
+            }
+        }
+    }
+}
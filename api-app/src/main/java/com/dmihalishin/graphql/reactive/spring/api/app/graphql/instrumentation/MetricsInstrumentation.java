@@ -0,0 +1,167 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.instrumentation;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.config.GraphQLMetricsConfiguration;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.validation.ValidationError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Request phase and field resolution metrics.
+ * Records {@code graphql.request} timers per phase (request, parse, validation, execution)
+ * and {@code graphql.field} timers per parent type and field, both tagged with the outcome.
+ * Only the sampled share of requests ({@code config.graphql.metrics.sample-rate}) is measured,
+ * other requests pay only for a single random number. Fields resolved by the property data fetchers
+ * are skipped unless {@code config.graphql.metrics.trivial-fields} is enabled.
+ *
+ * @see SimpleInstrumentation
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+@ConditionalOnProperty(name = "config.graphql.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsInstrumentation extends SimpleInstrumentation {
+
+    static final String REQUEST_METRIC = "graphql.request";
+    static final String FIELD_METRIC = "graphql.field";
+
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    private final GraphQLMetricsConfiguration configuration;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * MetricsInstrumentation constructor
+     *
+     * @param meterRegistry meter registry. Cannot be {@code null}
+     * @param configuration metrics configuration. Cannot be {@code null}
+     */
+    public MetricsInstrumentation(final MeterRegistry meterRegistry,
+                                  final GraphQLMetricsConfiguration configuration) {
+        this.meterRegistry = meterRegistry;
+        this.configuration = configuration;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see SimpleInstrumentation#createState(InstrumentationCreateStateParameters)
+     */
+    @Override
+    public InstrumentationState createState(final InstrumentationCreateStateParameters parameters) {
+        final double sampleRate = configuration.getSampleRate();
+        final boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return sampled ? SampledState.INSTANCE : null;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(final InstrumentationExecutionParameters parameters) {
+        return parameters.getInstrumentationState() == null
+                ? super.beginExecution(parameters)
+                : new TimerContext<>(this::requestTimer, "request", (result, error) -> error == null && result.getErrors().isEmpty());
+    }
+
+    @Override
+    public InstrumentationContext<Document> beginParse(final InstrumentationExecutionParameters parameters) {
+        return parameters.getInstrumentationState() == null
+                ? super.beginParse(parameters)
+                : new TimerContext<>(this::requestTimer, "parse", (document, error) -> error == null);
+    }
+
+    @Override
+    public InstrumentationContext<List<ValidationError>> beginValidation(final InstrumentationValidationParameters parameters) {
+        return parameters.getInstrumentationState() == null
+                ? super.beginValidation(parameters)
+                : new TimerContext<>(this::requestTimer, "validation", (errors, error) -> error == null && errors.isEmpty());
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(final InstrumentationExecuteOperationParameters parameters) {
+        return parameters.getInstrumentationState() == null
+                ? super.beginExecuteOperation(parameters)
+                : new TimerContext<>(this::requestTimer, "execution", (result, error) -> error == null);
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(final InstrumentationFieldFetchParameters parameters) {
+        if (parameters.getInstrumentationState() == null
+                || (parameters.isTrivialDataFetcher() && !configuration.isTrivialFields())) {
+            return super.beginFieldFetch(parameters);
+        }
+        final String type = GraphQLTypeUtil.simplePrint(parameters.getEnvironment().getParentType());
+        final String field = parameters.getField().getName();
+        return new TimerContext<>((name, success) -> fieldTimer(type, field, success), field, (value, error) -> error == null);
+    }
+
+    private Timer requestTimer(final String phase, final boolean success) {
+        return timers.computeIfAbsent(REQUEST_METRIC + ':' + phase + ':' + success, key -> Timer.builder(REQUEST_METRIC)
+                .description("GraphQL request phase duration of the sampled requests")
+                .tags("phase", phase, "outcome", success ? SUCCESS : ERROR)
+                .register(meterRegistry));
+    }
+
+    private Timer fieldTimer(final String type, final String field, final boolean success) {
+        return timers.computeIfAbsent(FIELD_METRIC + ':' + type + '.' + field + ':' + success, key -> Timer.builder(FIELD_METRIC)
+                .description("GraphQL field fetch duration of the sampled requests")
+                .tags("type", type, "field", field, "outcome", success ? SUCCESS : ERROR)
+                .register(meterRegistry));
+    }
+
+    /**
+     * State of the sampled request. Requests that are not sampled have no state
+     */
+    private static final class SampledState implements InstrumentationState {
+
+        private static final SampledState INSTANCE = new SampledState();
+    }
+
+    /**
+     * Records the time from the beginning till the completion of the step
+     *
+     * @param <T> step result type
+     */
+    private static final class TimerContext<T> extends SimpleInstrumentationContext<T> {
+
+        private final long startNanos = System.nanoTime();
+        private final BiFunction<String, Boolean, Timer> timers;
+        private final String name;
+        private final BiFunction<T, Throwable, Boolean> outcome;
+
+        private TimerContext(final BiFunction<String, Boolean, Timer> timers,
+                             final String name,
+                             final BiFunction<T, Throwable, Boolean> outcome) {
+            this.timers = timers;
+            this.name = name;
+            this.outcome = outcome;
+        }
+
+        @Override
+        public void onCompleted(final T result, final Throwable t) {
+            timers.apply(name, outcome.apply(result, t)).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.instrumentation;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.config.GraphQLRequestConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.GraphQLRequestConfiguration.EntityQuerySize;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.GraphQLExecutionLocalContext;
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.Field;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Query cost analysis and admission control.
+ * Before any data is fetched, every entity query field (configured with {@code config.query.size.<field>})
+ * is checked against its {@link EntityQuerySize} limits, and consumes {@code 100 * ids / maxIds} percent of the
+ * request capacity ({@link GraphQLExecutionLocalContext#getTotalCapacity()}).
+ * Query that exceeds its capacity is rejected, so it never generates any actor traffic.
+ * <p>
+ * Cost is calculated on operation execution, because validation is skipped for cached documents
+ * and ids could come from the variables.
+ *
+ * @see SimpleInstrumentation
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+@Slf4j
+public class QueryCostInstrumentation extends SimpleInstrumentation {
+
+    static final String IDS_ARGUMENT = "ids";
+
+    private static final double FULL_CAPACITY = 100.0;
+
+    private final GraphQLRequestConfiguration requestConfiguration;
+
+    /**
+     * QueryCostInstrumentation constructor
+     *
+     * @param requestConfiguration query size limits. Cannot be {@code null}
+     */
+    public QueryCostInstrumentation(final GraphQLRequestConfiguration requestConfiguration) {
+        this.requestConfiguration = requestConfiguration;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see SimpleInstrumentation#beginExecuteOperation(InstrumentationExecuteOperationParameters)
+     */
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(final InstrumentationExecuteOperationParameters parameters) {
+        final ExecutionContext executionContext = parameters.getExecutionContext();
+        final Object localContext = executionContext.getLocalContext();
+        if (localContext instanceof GraphQLExecutionLocalContext) {
+            final double capacity = ((GraphQLExecutionLocalContext) localContext).getTotalCapacity();
+            final double cost = calculateCost(executionContext);
+            log.debug("Query cost {} of capacity {}", cost, capacity);
+            if (cost > capacity) {
+                throw new AbortExecutionException(
+                        String.format("Query cost %.2f exceeds the request capacity %.2f", cost, capacity));
+            }
+        }
+        return super.beginExecuteOperation(parameters);
+    }
+
+    private double calculateCost(final ExecutionContext executionContext) {
+        final Map<Field, EntityField> entityFields = new IdentityHashMap<>();
+        QueryTraverser.newQueryTraverser()
+                .schema(executionContext.getGraphQLSchema())
+                .document(executionContext.getDocument())
+                .operationName(executionContext.getOperationDefinition().getName())
+                .variables(executionContext.getExecutionInput().getVariables())
+                .build()
+                .visitPreOrder(new QueryVisitorStub() {
+                    @Override
+                    public void visitField(final QueryVisitorFieldEnvironment environment) {
+                        if (environment.getParentEnvironment() == null) {
+                            getLimits(environment).ifPresent(limits -> entityFields.put(environment.getField(),
+                                    new EntityField(environment.getFieldDefinition().getName(), limits, countIds(environment))));
+                        } else {
+                            QueryVisitorFieldEnvironment root = environment;
+                            while (root.getParentEnvironment() != null) {
+                                root = root.getParentEnvironment();
+                            }
+                            final EntityField entityField = entityFields.get(root.getField());
+                            if (entityField != null) {
+                                entityField.attributes++;
+                            }
+                        }
+                    }
+                });
+        double cost = 0;
+        for (final EntityField entityField : entityFields.values()) {
+            cost += entityField.cost();
+        }
+        return cost;
+    }
+
+    private Optional<EntityQuerySize> getLimits(final QueryVisitorFieldEnvironment environment) {
+        final Map<String, EntityQuerySize> sizes = Optional.ofNullable(requestConfiguration.getSize())
+                .orElseGet(Collections::emptyMap);
+        if (!environment.getArguments().containsKey(IDS_ARGUMENT)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(sizes.get(environment.getFieldDefinition().getName()));
+    }
+
+    private static int countIds(final QueryVisitorFieldEnvironment environment) {
+        final Object ids = environment.getArguments().get(IDS_ARGUMENT);
+        return ids instanceof Collection ? ((Collection<?>) ids).size() : 0;
+    }
+
+    /**
+     * Entity query field with its limits
+     */
+    private static final class EntityField {
+
+        private final String name;
+        private final EntityQuerySize limits;
+        private final int ids;
+        private int attributes;
+
+        private EntityField(final String name, final EntityQuerySize limits, final int ids) {
+            this.name = name;
+            this.limits = limits;
+            this.ids = ids;
+        }
+
+        private double cost() {
+            if (ids < limits.getMinIds() || (limits.getMaxIds() > 0 && ids > limits.getMaxIds())) {
+                throw new AbortExecutionException(String.format("`%s` accepts from %d to %d ids, but %d requested",
+                        name, limits.getMinIds(), limits.getMaxIds(), ids));
+            }
+            if (attributes < limits.getMinAttributes()) {
+                throw new AbortExecutionException(String.format("`%s` requires at least %d attributes, but %d requested",
+                        name, limits.getMinAttributes(), attributes));
+            }
+            return limits.getMaxIds() > 0 ? FULL_CAPACITY * ids / limits.getMaxIds() : 0;
+        }
+    }
+}
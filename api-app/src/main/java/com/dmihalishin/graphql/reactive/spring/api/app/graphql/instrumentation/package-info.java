@@ -0,0 +1,4 @@
+/**
+ * All GraphQL engine instrumentations should be located in this package
+ */
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.instrumentation;
@@ -0,0 +1,67 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.persisted;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.pubsub.DistributedPubSub;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.PersistedQueryActor;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.query.PersistedQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * {@link PersistedQueryStore} shared across the Akka cluster.
+ * Every node keeps its own bounded copy, and registrations are replicated
+ * to all nodes with the distributed pub/sub topic.
+ *
+ * @see PersistedQueryStore
+ * @see PersistedQueryActor
+ */
+@Profile("!test")
+@Component
+@ConditionalOnProperty(name = "config.graphql.persisted-queries.store", havingValue = "cluster")
+public class ClusterPersistedQueryStore implements PersistedQueryStore {
+
+    private final InMemoryPersistedQueryStore localStore;
+
+    private final ActorRef mediator;
+
+    /**
+     * ClusterPersistedQueryStore constructor
+     *
+     * @param system        actor system. Cannot be {@code null}
+     * @param maxSize       max amount of stored queries on each node
+     * @param meterRegistry meter registry. Cannot be {@code null}
+     */
+    public ClusterPersistedQueryStore(final ActorSystem system,
+                                      @Value("${config.graphql.persisted-queries.max-size: 10000}") final long maxSize,
+                                      final MeterRegistry meterRegistry) {
+        this.localStore = new InMemoryPersistedQueryStore(maxSize, meterRegistry);
+        this.mediator = DistributedPubSub.get(system).mediator();
+        final ActorRef subscriber = system.actorOf(
+                Props.create(PersistedQueryActor.class, () -> new PersistedQueryActor(localStore::put)),
+                PersistedQueryActor.NAME);
+        mediator.tell(new DistributedPubSubMediator.Subscribe(PersistedQueryActor.TOPIC, subscriber), subscriber);
+    }
+
+    @Override
+    public Optional<String> get(final String hash) {
+        return localStore.get(hash);
+    }
+
+    @Override
+    public void put(final String hash, final String query) {
+        localStore.put(hash, query);
+        mediator.tell(new DistributedPubSubMediator.Publish(PersistedQueryActor.TOPIC,
+                PersistedQuery.newBuilder()
+                        .setHash(hash)
+                        .setQuery(query)
+                        .build()), ActorRef.noSender());
+    }
+}
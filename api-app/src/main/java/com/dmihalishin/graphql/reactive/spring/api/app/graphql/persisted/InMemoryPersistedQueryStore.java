@@ -0,0 +1,51 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.persisted;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Node local, size bounded {@link PersistedQueryStore}.
+ * Used by default.
+ *
+ * @see PersistedQueryStore
+ */
+@Component
+@ConditionalOnProperty(name = "config.graphql.persisted-queries.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPersistedQueryStore implements PersistedQueryStore {
+
+    static final String CACHE_NAME = "graphql.persisted-queries";
+
+    private final Cache<String, String> cache;
+
+    /**
+     * InMemoryPersistedQueryStore constructor
+     *
+     * @param maxSize       max amount of stored queries
+     * @param meterRegistry meter registry. Cannot be {@code null}
+     */
+    public InMemoryPersistedQueryStore(@Value("${config.graphql.persisted-queries.max-size: 10000}") final long maxSize,
+                                       final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Optional<String> get(final String hash) {
+        return Optional.ofNullable(cache.getIfPresent(hash));
+    }
+
+    @Override
+    public void put(final String hash, final String query) {
+        cache.put(hash, query);
+    }
+}
@@ -0,0 +1,25 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.persisted;
+
+import java.util.Optional;
+
+/**
+ * Store of the persisted queries, keyed by SHA-256 hash of the query text.
+ */
+public interface PersistedQueryStore {
+
+    /**
+     * Retrieves query by its hash
+     *
+     * @param hash SHA-256 hash of the query in lower case hex. Cannot be {@code null}
+     * @return query text, or empty if query was never registered or already evicted
+     */
+    Optional<String> get(String hash);
+
+    /**
+     * Register query
+     *
+     * @param hash  SHA-256 hash of the query in lower case hex. Cannot be {@code null}
+     * @param query query text. Cannot be {@code null}
+     */
+    void put(String hash, String query);
+}
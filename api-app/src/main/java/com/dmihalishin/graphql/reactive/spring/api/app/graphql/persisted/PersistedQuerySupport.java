@@ -0,0 +1,90 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.persisted;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.PersistedQueryException;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.GraphQLRequestBody;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+/**
+ * Automatic persisted queries support.
+ * Client sends only SHA-256 hash of the query in the {@code extensions.persistedQuery.sha256Hash},
+ * and, if the server does not know such hash, the client sends the query text together with the hash once to register it.
+ *
+ * @see <a href="https://github.com/apollographql/apollo-link-persisted-queries#protocol">Persisted Queries Protocol</a>
+ */
+@Component
+public class PersistedQuerySupport {
+
+    public static final String PERSISTED_QUERY_NOT_FOUND = "PERSISTED_QUERY_NOT_FOUND";
+    public static final String PERSISTED_QUERY_NOT_SUPPORTED = "PERSISTED_QUERY_NOT_SUPPORTED";
+    public static final String PERSISTED_QUERY_HASH_MISMATCH = "PERSISTED_QUERY_HASH_MISMATCH";
+
+    private static final String PERSISTED_QUERY = "persistedQuery";
+    private static final String VERSION = "version";
+    private static final String SHA_256_HASH = "sha256Hash";
+    private static final int SUPPORTED_VERSION = 1;
+
+    private final PersistedQueryStore store;
+
+    /**
+     * PersistedQuerySupport constructor
+     *
+     * @param store persisted query store. Cannot be {@code null}
+     */
+    public PersistedQuerySupport(final PersistedQueryStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Resolves query text of the request.
+     * Query without persisted query extension is returned as is.
+     *
+     * @param requestBody request body. Cannot be {@code null}
+     * @return query text. Can be {@code null}
+     * @throws PersistedQueryException if persisted query is unknown or does not match its hash
+     */
+    public String resolveQuery(final GraphQLRequestBody requestBody) {
+        final Object extension = requestBody.getExtensions() == null
+                ? null : requestBody.getExtensions().get(PERSISTED_QUERY);
+        if (!(extension instanceof Map)) {
+            return requestBody.getQuery();
+        }
+        final Map<?, ?> persistedQuery = (Map<?, ?>) extension;
+        final Object version = persistedQuery.get(VERSION);
+        final Object hash = persistedQuery.get(SHA_256_HASH);
+        if (!(version instanceof Number) || ((Number) version).intValue() != SUPPORTED_VERSION || !(hash instanceof String)) {
+            throw new PersistedQueryException(PERSISTED_QUERY_NOT_SUPPORTED, "PersistedQueryNotSupported");
+        }
+        final String sha256Hash = StringUtils.lowerCase((String) hash);
+        final String query = requestBody.getQuery();
+        if (StringUtils.isBlank(query)) {
+            return store.get(sha256Hash)
+                    .orElseThrow(() -> new PersistedQueryException(PERSISTED_QUERY_NOT_FOUND, "PersistedQueryNotFound"));
+        }
+        // clients could send the query with its hash on every request, known queries are neither hashed nor registered again
+        if (store.get(sha256Hash).filter(query::equals).isPresent()) {
+            return query;
+        }
+        // hash is calculated only when the query is registered
+        if (!sha256Hash.equals(sha256Hex(query))) {
+            throw new PersistedQueryException(PERSISTED_QUERY_HASH_MISMATCH, "provided sha does not match query");
+        }
+        store.put(sha256Hash, query);
+        return query;
+    }
+
+    private static String sha256Hex(final String query) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
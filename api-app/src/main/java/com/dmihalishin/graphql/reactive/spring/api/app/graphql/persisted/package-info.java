@@ -0,0 +1,4 @@
+/**
+ * All classes related to the persisted queries should be located in this package
+ */
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.persisted;
@@ -0,0 +1,193 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.config.GraphQLWebSocketConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.DeserializationException;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.GraphQLInvocation;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.GraphQLRequestBody;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.COMPLETE;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.CONNECTION_ACK;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.CONNECTION_ERROR;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.CONNECTION_INIT;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.CONNECTION_KEEP_ALIVE;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.CONNECTION_TERMINATE;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.DATA;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.ERROR;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.START;
+import static com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket.GraphQLWebSocketMessage.STOP;
+
+/**
+ * GraphQL WebSocket Handler.
+ * Speaks the graphql-ws protocol: many operations (queries and subscriptions) are multiplexed over a single connection,
+ * each one is executed with {@link GraphQLInvocation}.
+ * Per connection flow control: amount of active operations is limited, outgoing messages are buffered up to the
+ * configured size and the connection is closed when the client does not read them in time.
+ * Keep-alive messages are sent periodically while the connection is open.
+ *
+ * @see GraphQLWebSocketConfiguration
+ * @see <a href="https://github.com/apollographql/subscriptions-transport-ws/blob/master/PROTOCOL.md">graphql-ws protocol</a>
+ */
+@Profile("!TestWithoutGraphQL")
+@Component
+@Slf4j
+public class GraphQLWebSocketHandler implements WebSocketHandler {
+
+    public static final String SUB_PROTOCOL = "graphql-ws";
+
+    private final GraphQLInvocation graphQLInvocation;
+
+    private final ObjectMapper objectMapper;
+
+    private final GraphQLWebSocketConfiguration configuration;
+
+    /**
+     * GraphQLWebSocketHandler constructor
+     *
+     * @param graphQLInvocation GraphQL invocation. Cannot be {@code null}
+     * @param objectMapper      Jackson object mapper. Cannot be {@code null}
+     * @param configuration     WebSocket configuration. Cannot be {@code null}
+     */
+    public GraphQLWebSocketHandler(final GraphQLInvocation graphQLInvocation,
+                                   final ObjectMapper objectMapper,
+                                   final GraphQLWebSocketConfiguration configuration) {
+        this.graphQLInvocation = graphQLInvocation;
+        this.objectMapper = objectMapper;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public List<String> getSubProtocols() {
+        return Collections.singletonList(SUB_PROTOCOL);
+    }
+
+    @Override
+    public Mono<Void> handle(final WebSocketSession session) {
+        // stop signals of the active operations by operation id
+        final Map<String, MonoProcessor<Boolean>> operations = new ConcurrentHashMap<>();
+        final Flux<GraphQLWebSocketMessage> outbound = getUserDetails(session)
+                .flatMapMany(userDetails -> session.receive()
+                        .map(WebSocketMessage::getPayloadAsText)
+                        // amount of operations is limited on start, so inbound messages are never held back
+                        .flatMap(text -> handleMessage(session, text, operations, userDetails.orElse(null)),
+                                Integer.MAX_VALUE))
+                .publish(responses -> Flux.merge(responses,
+                        Flux.interval(configuration.getKeepAlive())
+                                .map(tick -> new GraphQLWebSocketMessage(CONNECTION_KEEP_ALIVE, null, null))
+                                .takeUntilOther(responses.then())))
+                .onBackpressureBuffer(configuration.getBufferSize(), BufferOverflowStrategy.ERROR)
+                .doFinally(signal -> operations.values().forEach(stop -> stop.onNext(true)));
+        return session.send(outbound.map(message -> session.textMessage(serialize(message))))
+                .onErrorResume(Exceptions::isOverflow, error -> {
+                    log.warn("WebSocket {} is closed: client does not read messages in time", session.getId());
+                    return session.close(CloseStatus.POLICY_VIOLATION.withReason("Too slow consumer"));
+                });
+    }
+
+    private Flux<GraphQLWebSocketMessage> handleMessage(final WebSocketSession session,
+                                                       final String text,
+                                                       final Map<String, MonoProcessor<Boolean>> operations,
+                                                       final UserDetails userDetails) {
+        final GraphQLWebSocketMessage message;
+        try {
+            message = objectMapper.readValue(text, GraphQLWebSocketMessage.class);
+        } catch (JsonProcessingException e) {
+            return Flux.just(new GraphQLWebSocketMessage(CONNECTION_ERROR, null, errorPayload("Wrong message format")));
+        }
+        switch (String.valueOf(message.getType())) {
+            case CONNECTION_INIT:
+                return Flux.just(new GraphQLWebSocketMessage(CONNECTION_ACK, null, null),
+                        new GraphQLWebSocketMessage(CONNECTION_KEEP_ALIVE, null, null));
+            case START:
+                return start(message, operations, userDetails);
+            case STOP:
+                final MonoProcessor<Boolean> stop = operations.remove(String.valueOf(message.getId()));
+                if (stop != null) {
+                    stop.onNext(true);
+                }
+                return Flux.empty();
+            case CONNECTION_TERMINATE:
+                return session.close().thenMany(Flux.empty());
+            default:
+                return Flux.just(new GraphQLWebSocketMessage(ERROR, message.getId(),
+                        errorPayload("Unknown message type " + message.getType())));
+        }
+    }
+
+    private Flux<GraphQLWebSocketMessage> start(final GraphQLWebSocketMessage message,
+                                               final Map<String, MonoProcessor<Boolean>> operations,
+                                               final UserDetails userDetails) {
+        final String id = message.getId();
+        if (id == null) {
+            return Flux.just(new GraphQLWebSocketMessage(ERROR, null, errorPayload("Operation id is required")));
+        }
+        if (operations.size() >= configuration.getMaxOperations()) {
+            return Flux.just(new GraphQLWebSocketMessage(ERROR, id, errorPayload(
+                    "Too many active operations, max is " + configuration.getMaxOperations())));
+        }
+        final MonoProcessor<Boolean> stop = MonoProcessor.create();
+        if (operations.putIfAbsent(id, stop) != null) {
+            return Flux.just(new GraphQLWebSocketMessage(ERROR, id, errorPayload("Operation " + id + " is already started")));
+        }
+        final GraphQLRequestBody requestBody;
+        try {
+            requestBody = objectMapper.convertValue(message.getPayload(), GraphQLRequestBody.class);
+        } catch (IllegalArgumentException e) {
+            operations.remove(id, stop);
+            return Flux.just(new GraphQLWebSocketMessage(ERROR, id, errorPayload("Wrong Request Body. Please check specification.")));
+        }
+        return graphQLInvocation.invoke(requestBody, userDetails)
+                .map(result -> new GraphQLWebSocketMessage(DATA, id, result))
+                .takeUntilOther(stop)
+                // stopped operations are not completed by the server
+                .concatWith(Mono.fromSupplier(() -> new GraphQLWebSocketMessage(COMPLETE, id, null))
+                        .filter(complete -> !stop.isTerminated()))
+                .onErrorResume(error -> {
+                    log.error("Operation {} failed", id, error);
+                    return Mono.just(new GraphQLWebSocketMessage(ERROR, id, errorPayload(error.getMessage())));
+                })
+                .doFinally(signal -> operations.remove(id, stop));
+    }
+
+    private static Mono<Optional<UserDetails>> getUserDetails(final WebSocketSession session) {
+        return session.getHandshakeInfo().getPrincipal()
+                .filter(Authentication.class::isInstance)
+                .map(principal -> ((Authentication) principal).getPrincipal())
+                .filter(UserDetails.class::isInstance)
+                .map(principal -> Optional.of((UserDetails) principal))
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private static Map<String, Object> errorPayload(final String message) {
+        return Collections.singletonMap("message", message);
+    }
+
+    private String serialize(final GraphQLWebSocketMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new DeserializationException("Cannot serialize " + message.getType() + " message", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Message of the graphql-ws protocol
+ *
+ * @see <a href="https://github.com/apollographql/subscriptions-transport-ws/blob/master/PROTOCOL.md">graphql-ws protocol</a>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphQLWebSocketMessage {
+
+    public static final String CONNECTION_INIT = "connection_init";
+    public static final String CONNECTION_ACK = "connection_ack";
+    public static final String CONNECTION_ERROR = "connection_error";
+    public static final String CONNECTION_KEEP_ALIVE = "ka";
+    public static final String CONNECTION_TERMINATE = "connection_terminate";
+    public static final String START = "start";
+    public static final String DATA = "data";
+    public static final String ERROR = "error";
+    public static final String COMPLETE = "complete";
+    public static final String STOP = "stop";
+
+    private String type;
+
+    /**
+     * Operation ID, unique within the connection
+     */
+    private String id;
+
+    private Object payload;
+
+}
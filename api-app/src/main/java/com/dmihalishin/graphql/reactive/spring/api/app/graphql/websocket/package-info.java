@@ -0,0 +1,4 @@
+/**
+ * GraphQL over WebSocket transport (graphql-ws protocol) should be located in this package
+ */
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.websocket;
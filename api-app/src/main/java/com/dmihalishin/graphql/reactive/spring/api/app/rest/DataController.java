@@ -2,6 +2,7 @@ package com.dmihalishin.graphql.reactive.spring.api.app.rest;
 
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.GraphQLResponse;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.ProblemDetail;
+import graphql.ExecutionResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,12 +12,11 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.util.Map;
-
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON_VALUE;
 
@@ -27,13 +27,20 @@ import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON_VALUE;
 @RestController
 public interface DataController {
 
+    /**
+     * Header with the latency budget of the request in milliseconds
+     */
+    String TIMEOUT_HEADER = "X-Request-Timeout";
+
     /**
      * Retrieve Data using GET HTTP method
      *
-     * @param query         GraphQL query. Can be {@code blank}
-     * @param operationName GraphQL operation name. Can be {@code blank}
-     * @param variablesJson GraphQL variables as JSON. Can be {@code blank}
-     * @param userDetails   User details of authorized user. Can be {@code null}
+     * @param query          GraphQL query. Can be {@code blank} for already persisted query
+     * @param operationName  GraphQL operation name. Can be {@code blank}
+     * @param variablesJson  GraphQL variables as JSON. Can be {@code blank}
+     * @param extensionsJson GraphQL extensions as JSON, e.g. persisted query hash. Can be {@code blank}
+     * @param timeoutMillis  latency budget of the request in milliseconds. Can be {@code null}
+     * @param userDetails    User details of authorized user. Can be {@code null}
      * @return data
      */
     @Operation(method = "GET",
@@ -66,18 +73,22 @@ public interface DataController {
     @ApiResponse(responseCode = "500", description = "Unexpected Internal Server Error",
             content = @Content(mediaType = APPLICATION_JSON_VALUE,
                     schema = @Schema(implementation = ProblemDetail.class)))
-    Flux<Map<String, Object>> getData(
-            @RequestParam("query") String query,
+    Flux<ExecutionResult> getData(
+            @RequestParam(value = "query", required = false) String query,
             @RequestParam(value = "operationName", required = false) String operationName,
             @RequestParam(value = "variables", required = false) String variablesJson,
+            @RequestParam(value = "extensions", required = false) String extensionsJson,
+            @Parameter(description = "Latency budget in milliseconds, entities not loaded within it are returned as null with the error")
+            @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutMillis,
             @Parameter(hidden = true) UserDetails userDetails);
 
     /**
      * Retrieve Data using POST HTTP method
      *
-     * @param contentType content type. Cannot be {@code null}
-     * @param body        request Body. Can be {@code null}
-     * @param userDetails User details of authorized user. Can be {@code null}
+     * @param contentType   content type. Cannot be {@code null}
+     * @param body          request Body. Can be {@code null}
+     * @param timeoutMillis latency budget of the request in milliseconds. Can be {@code null}
+     * @param userDetails   User details of authorized user. Can be {@code null}
      * @return Data
      */
     @Operation(method = "POST",
@@ -110,8 +121,8 @@ public interface DataController {
     @ApiResponse(responseCode = "500", description = "Unexpected Internal Server Error",
             content = @Content(mediaType = APPLICATION_JSON_VALUE,
                     schema = @Schema(implementation = ProblemDetail.class)))
-    Flux<Map<String, Object>> getData(@Parameter(hidden = true) String contentType,
-                                      @RequestBody(content = @Content(mediaType = "", examples = @ExampleObject("{\n" +
+    Flux<ExecutionResult> getData(@Parameter(hidden = true) String contentType,
+                                 @RequestBody(content = @Content(mediaType = "", examples = @ExampleObject("{\n" +
                                               "    getTasks(ids: [123,1,10,56]){\n" +
                                               "        key \n" +
                                               "        task {\n" +
@@ -123,6 +134,8 @@ public interface DataController {
                                               "        }\n" +
                                               "    }\n" +
                                               "}"))) String body,
-                                      @Parameter(hidden = true) UserDetails userDetails);
+                                 @Parameter(description = "Latency budget in milliseconds, entities not loaded within it are returned as null with the error")
+                                 @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutMillis,
+                                 @Parameter(hidden = true) UserDetails userDetails);
 
 }
@@ -1,8 +1,9 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.rest;
 
-import com.dmihalishin.graphql.reactive.spring.api.app.dao.TaskRepository;
+import com.dmihalishin.graphql.reactive.spring.api.app.dao.TaskStore;
 import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.DeserializationException;
 import com.dmihalishin.graphql.reactive.spring.api.app.graphql.GraphQLInvocation;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.cache.TaskEntityCache;
 import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.GraphQLRequestBody;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import graphql.ExecutionResult;
@@ -22,7 +23,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -36,58 +39,68 @@ public class GraphQLController implements DataController {
 
     private final ObjectMapper objectMapper;
 
-    private final TaskRepository taskRepository;
+    private final TaskStore taskStore;
+
+    private final TaskEntityCache taskEntityCache;
 
     /**
      * Constructor for the class
      *
      * @param graphQLInvocation {@link GraphQLInvocation} object that will invoke GraphQL request
      * @param objectMapper      Jackson object mapper
+     * @param taskStore         task store
+     * @param taskEntityCache   task cache
      */
     @Autowired
     public GraphQLController(GraphQLInvocation graphQLInvocation, ObjectMapper objectMapper,
-                             final TaskRepository taskRepository) {
+                             final TaskStore taskStore, final TaskEntityCache taskEntityCache) {
         this.graphQLInvocation = graphQLInvocation;
         this.objectMapper = objectMapper;
-        this.taskRepository = taskRepository;
+        this.taskStore = taskStore;
+        this.taskEntityCache = taskEntityCache;
     }
 
     /**
      * {@inheritDoc}
      *
-     * @see DataController#getData(String, String, String, UserDetails)
+     * @see DataController#getData(String, String, String, String, Long, UserDetails)
      * @see <a href="https://graphql.org/learn/serving-over-http/#get-request">GraphQL Get Request</a>
      */
     @GetMapping(value = "/graphql",
             produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
     @SuppressWarnings("unchecked")
     @Override
-    public Flux<Map<String, Object>> getData(
+    public Flux<ExecutionResult> getData(
             final String query,
             final String operationName,
             final String variablesJson,
+            final String extensionsJson,
+            final Long timeoutMillis,
             @AuthenticationPrincipal UserDetails userDetails) {
 
         final GraphQLRequestBody requestBody = new GraphQLRequestBody(query,
                 operationName,
                 StringUtils.isBlank(variablesJson) ? null :
-                        deserialize(variablesJson, Map.class, "Invalid `variables` parameter. Please check specification."));
-        return executeRequest(requestBody, userDetails);
+                        deserialize(variablesJson, Map.class, "Invalid `variables` parameter. Please check specification."),
+                StringUtils.isBlank(extensionsJson) ? null :
+                        deserialize(extensionsJson, Map.class, "Invalid `extensions` parameter. Please check specification."));
+        return executeRequest(requestBody, timeoutMillis, userDetails);
     }
 
     /**
      * {@inheritDoc}
      *
-     * @see DataController#getData(String, String, UserDetails)
+     * @see DataController#getData(String, String, Long, UserDetails)
      * @see <a href="https://graphql.org/learn/serving-over-http/#post-request">GraphQL Post Request</a>
      */
     @PostMapping(value = "/graphql",
             consumes = {APPLICATION_GRAPHQL_VALUE, MediaType.APPLICATION_JSON_VALUE},
             produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
     @Override
-    public Flux<Map<String, Object>> getData(
+    public Flux<ExecutionResult> getData(
             @RequestHeader(value = HttpHeaders.CONTENT_TYPE) String contentType,
             @RequestBody String body,
+            final Long timeoutMillis,
             @AuthenticationPrincipal UserDetails userDetails) {
 
         final MediaType mediaType = Optional.ofNullable(contentType)
@@ -98,23 +111,39 @@ public class GraphQLController implements DataController {
         } else {
             // * If the "application/graphql" Content-Type header is present,
             //   treat the HTTP POST body contents as the GraphQL query string.
-            requestBody = new GraphQLRequestBody(body, null, null);
+            requestBody = new GraphQLRequestBody(body, null, null, null);
         }
-        return executeRequest(requestBody, userDetails);
+        return executeRequest(requestBody, timeoutMillis, userDetails);
     }
 
     @GetMapping(value = "/task/count",
             produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<HashMap<String, Long>> createTask() {
-        final long size = taskRepository.count();
-        return Mono.just(new HashMap<>() {{
-            put("count", size);
-        }});
+        return taskStore.count().map(count -> {
+            final HashMap<String, Long> result = new HashMap<>();
+            result.put("count", count);
+            return result;
+        });
+    }
+
+    /**
+     * Mark tasks as changed: cached tasks are dropped on all cluster nodes
+     * and the change is pushed to the task subscriptions
+     *
+     * @param ids changed task ids
+     * @return completion
+     */
+    @PostMapping(value = "/task/changes",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Void> changeTasks(@RequestBody final List<Integer> ids) {
+        return Mono.fromRunnable(() -> taskEntityCache.invalidate(ids));
     }
 
-    private Flux<Map<String, Object>> executeRequest(final GraphQLRequestBody requestBody,
-                                                     final UserDetails userDetails) {
-        return graphQLInvocation.invoke(requestBody, userDetails);
+    private Flux<ExecutionResult> executeRequest(final GraphQLRequestBody requestBody,
+                                                 final Long timeoutMillis,
+                                                 final UserDetails userDetails) {
+        return graphQLInvocation.execute(requestBody, userDetails,
+                timeoutMillis == null ? null : Duration.ofMillis(timeoutMillis));
     }
 
     private <T> T deserialize(final String json,
@@ -2,44 +2,153 @@ package com.dmihalishin.graphql.reactive.spring.api.app.service.akka;
 
 import akka.actor.AbstractLoggingActor;
 import akka.actor.ActorRef;
+import akka.actor.Address;
+import akka.actor.ExtendedActorSystem;
+import akka.actor.Status;
+import akka.cluster.Cluster;
+import akka.cluster.ClusterActorRefProvider;
+import akka.cluster.ClusterEvent;
+import akka.routing.ActorRefRoutee;
+import akka.routing.ActorSelectionRoutee;
+import akka.routing.GetRoutees;
+import akka.routing.Routee;
+import akka.routing.Routees;
+import akka.routing.RoutingLogic;
 import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.Actor;
 import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.AkkaConfig;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.DataLoaderActorConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.TaskRouterConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.DataLoadingException;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.DataErrorType;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.EmptyResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.FailureResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataResponse;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataRequest;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataResponse;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state.DataState;
-import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state.RetryableRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state.DeadlineQueue;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state.TaskLoadState;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support.LatencyTracker;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support.OutlierEjectingRoutingLogic;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support.RetryBudget;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support.RouteeCircuitBreaker;
 import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
-import com.google.protobuf.GeneratedMessageV3;
+import com.dmihalishin.graphql.reactive.spring.api.app.util.LongHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import scala.collection.immutable.IndexedSeq;
+import scala.collection.immutable.Vector$;
+import scala.collection.immutable.VectorBuilder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Consumer;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Data Loader Actor.
  * Actor load data from different actors base on the user request.
+ * Task loads are sent to the task router routees directly, and are hedged: when the load is not answered
+ * within the observed latency percentile of the task loader node, the same load is sent to the fastest other node
+ * and the first response wins. Hedged loads are capped with the retry budget.
+ * Failed loads are hedged right away, the requests are failed when there is no other node to load from.
+ * Nodes, that do not answer several loads in a row within the response timeout, are ejected from routing for a while.
+ * Requests above the limit of requests in flight are rejected immediately instead of waiting for the overloaded loaders.
  *
  * @see AbstractLoggingActor
  */
 @Actor
-public class DataLoaderActor extends AbstractStatefulActor<Map<String, DataState>> {
+public class DataLoaderActor extends AbstractStatefulActor<LongHashMap<DataState>> {
 
     public static final String NAME = "dataLoaderActor";
 
+    private static final String WAKE_UP_TIMER = "DataLoaderActor_WAKE_UP";
+
     private final ActorRef taskLoaderActor;
+    private final OutlierEjectingRoutingLogic taskRoutingLogic;
+    private final DataLoaderActorConfiguration configuration;
+    private final TaskRouterConfiguration taskRouterConfiguration;
+    private final DeadlineQueue deadlines = new DeadlineQueue();
+    /* task loads in flight by load id and by task id, used to collapse concurrent loads of the same task */
+    private final LongHashMap<TaskLoadState> loads = new LongHashMap<>();
+    private final LongHashMap<TaskLoadState> loadsByTaskId = new LongHashMap<>();
+    private final Counter sentLoads;
+    private final Counter collapsedLoads;
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+    private final Counter expiredStates;
+    private final Counter expiredLoads;
+    /* round-trip timers by node of the responding task loader */
+    private final Map<Address, Timer> roundTripTimers = new HashMap<>();
+    /* task load latency of all nodes and by node of the responding task loader */
+    private final LatencyTracker latencies;
+    private final Map<Address, LatencyTracker> nodeLatencies = new HashMap<>();
+    private final RetryBudget hedgeBudget;
+    private final Counter sentHedges;
+    private final Counter throttledHedges;
+    private final Counter ejections;
+    private final Counter shedRequests;
+    /* routees of the task router, refreshed periodically and on the cluster events,
+     * routees of the unreachable and removed nodes are dropped immediately, before the router drops them */
+    private List<Routee> routerRoutees = Collections.emptyList();
+    private final Set<Address> unreachableNodes = new HashSet<>();
+    private IndexedSeq<Routee> routees = Vector$.MODULE$.empty();
+    private List<Routee> routeeList = Collections.emptyList();
+    private Cluster cluster;
+    /* hedge deadlines could be shorter than the tick, so the actor is woken up for the earliest deadline */
+    private boolean wakeUpScheduled;
+    private long wakeUpNanos;
+    private Gauge stateGauge;
+    private Gauge loadGauge;
 
     @Autowired
-    public DataLoaderActor(@Qualifier(AkkaConfig.TASK_ROUTER_NAME) final ActorRef taskLoaderActor) {
-        super(new HashMap<>());
+    public DataLoaderActor(@Qualifier(AkkaConfig.TASK_ROUTER_NAME) final ActorRef taskLoaderActor,
+                           @Qualifier(AkkaConfig.TASK_ROUTING_LOGIC_NAME) final RoutingLogic taskRoutingLogic,
+                           final DataLoaderActorConfiguration configuration,
+                           final TaskRouterConfiguration taskRouterConfiguration,
+                           final MeterRegistry meterRegistry) {
+        super(new LongHashMap<>());
         this.taskLoaderActor = taskLoaderActor;
+        this.taskRoutingLogic = new OutlierEjectingRoutingLogic(taskRoutingLogic, this::node,
+                () -> new RouteeCircuitBreaker(configuration.getFailureThreshold(),
+                        configuration.getEjectionTime().toNanos(),
+                        configuration.getMaxEjectionTime().toNanos(),
+                        configuration.getResponseTimeout().toNanos()),
+                configuration.getMaxEjectionShare());
+        this.configuration = configuration;
+        this.taskRouterConfiguration = taskRouterConfiguration;
+        this.sentLoads = loadsCounter(meterRegistry, "sent");
+        this.collapsedLoads = loadsCounter(meterRegistry, "collapsed");
+        this.meterRegistry = meterRegistry;
+        this.retries = Counter.builder("akka.data-loader.retries")
+                .description("Amount of requests, that were resent because of the missing response")
+                .register(meterRegistry);
+        this.expiredStates = expiredCounter(meterRegistry, "state");
+        this.expiredLoads = expiredCounter(meterRegistry, "load");
+        this.latencies = new LatencyTracker(configuration.getLatencyWindow());
+        this.hedgeBudget = new RetryBudget(configuration.getHedgeBudget(), configuration.getHedgeBudgetReserve());
+        this.sentHedges = hedgesCounter(meterRegistry, "sent");
+        this.throttledHedges = hedgesCounter(meterRegistry, "throttled");
+        this.ejections = Counter.builder("akka.data-loader.ejections")
+                .description("Amount of task loader nodes ejections, because of the not answered task loads")
+                .register(meterRegistry);
+        this.shedRequests = Counter.builder("akka.data-loader.shed")
+                .description("Amount of requests, that were rejected because of too many requests in flight")
+                .register(meterRegistry);
     }
 
     @Override
@@ -49,7 +158,38 @@ public class DataLoaderActor extends AbstractStatefulActor<Map<String, DataState
         getTimers().startPeriodicTimer(
                 "DataLoaderActor_TICK",
                 new CheckTick(LocalDateTime.now(), this.getSelf().path().toString()),
-                java.time.Duration.ofMillis(300));
+                configuration.getTick());
+        getTimers().startPeriodicTimer(
+                "DataLoaderActor_ROUTEES",
+                RefreshRoutees.INSTANCE,
+                configuration.getRouteesRefresh());
+        refreshRoutees(RefreshRoutees.INSTANCE);
+        if (((ExtendedActorSystem) context().system()).provider() instanceof ClusterActorRefProvider) {
+            cluster = Cluster.get(context().system());
+            cluster.subscribe(self(), ClusterEvent.initialStateAsEvents(),
+                    ClusterEvent.MemberUp.class, ClusterEvent.MemberRemoved.class,
+                    ClusterEvent.UnreachableMember.class, ClusterEvent.ReachableMember.class);
+        }
+        // maps are confined to the actor, gauges read only their size
+        final String actor = self().path().toStringWithoutAddress();
+        stateGauge = Gauge.builder("akka.data-loader.states", state, LongHashMap::size)
+                .description("Amount of requests in flight")
+                .tag("actor", actor)
+                .register(meterRegistry);
+        loadGauge = Gauge.builder("akka.data-loader.task.loads.active", loads, LongHashMap::size)
+                .description("Amount of task loads in flight")
+                .tag("actor", actor)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void postStop() throws Exception {
+        if (cluster != null) {
+            cluster.unsubscribe(self());
+        }
+        meterRegistry.remove(stateGauge);
+        meterRegistry.remove(loadGauge);
+        super.postStop();
     }
 
     /**
@@ -63,75 +203,484 @@ public class DataLoaderActor extends AbstractStatefulActor<Map<String, DataState
                 // task logic
                 .match(TaskDataRequest.class, this::processTaskDataRequest)
                 .match(TaskDataResponse.class, this::processTaskDataResponse)
+                .match(TaskBatchDataRequest.class, this::processTaskBatchDataRequest)
+                .match(TaskBatchDataResponse.class, this::processTaskBatchDataResponse)
                 // common
                 .match(EmptyResponse.class, this::processEmptyResponse)
+                .match(FailureResponse.class, this::processFailureResponse)
                 .match(CheckTick.class, this::checkForRetries)
+                .match(RefreshRoutees.class, this::refreshRoutees)
+                .match(Routees.class, this::updateRoutees)
+                .match(ClusterEvent.UnreachableMember.class, event -> updateReachability(event.member().address(), false))
+                .match(ClusterEvent.MemberRemoved.class, event -> updateReachability(event.member().address(), false))
+                .match(ClusterEvent.ReachableMember.class, event -> updateReachability(event.member().address(), true))
+                .match(ClusterEvent.MemberUp.class, event -> updateReachability(event.member().address(), true))
                 .matchAny(this::unhandled)
                 .build();
     }
 
     @Override
-    public int doCleanupOrRetries(final Map<String, DataState> state) {
+    public int doCleanupOrRetries(final LongHashMap<DataState> state) {
         final MutableInt counter = new MutableInt(0);
-        final LocalDateTime now = LocalDateTime.now();
-        final List<String> removeKeys = new ArrayList<>();
-        state.forEach((key, value) -> {
-            // if state created date + max state TTL less the current date, then it must be removed
-            if (now.isAfter(
-                    value.getCreated().plus(1000, ChronoUnit.MILLIS)
-            )) {
-                log().warning("Cleaning up state {}", key);
-                removeKeys.add(key);
-            }
-
-            value.getRequests().forEach((requestId, request) -> {
-                final LocalDateTime maxRequestTime = value.getCreated().plus(100, ChronoUnit.MILLIS);
-                final LocalDateTime maxResponseTime = value.getCreated().plus(request.getMaxResponseTime(), ChronoUnit.MILLIS);
-                // if max request time not exceeded and state not done after delay,
-                // then we resent requests that was not processed
-                if (now.isBefore(maxRequestTime) && now.isAfter(maxResponseTime)) {
-                    request.getCall().accept(self());
-                    counter.increment();
+        final long now = System.nanoTime();
+        final long retryWindow = configuration.getRetryWindow().toNanos();
+        if (wakeUpScheduled && now - wakeUpNanos >= 0) {
+            wakeUpScheduled = false;
+        }
+        // only due deadlines are visited, deadlines of already completed states are skipped
+        deadlines.pollDue(now, (key, kind) -> {
+            if (kind == DeadlineQueue.Kind.HEDGE) {
+                final TaskLoadState load = loads.get(key);
+                if (load != null && now - load.getSentNanos() < retryWindow) {
+                    counter.add(hedge(load, now));
+                }
+                return;
+            }
+            if (kind == DeadlineQueue.Kind.LOAD_EXPIRE) {
+                final TaskLoadState load = loads.remove(key);
+                if (load != null) {
+                    releaseTasks(load);
+                    load.forEachNode((node, sentNanos) -> onNodeFailure(node));
+                    expiredLoads.increment();
+                    // load expires with the state that started it, states collapsed onto it later
+                    // would wait for the dropped load till their own expiration
+                    failWaiters(load, new DataLoadingException(DataErrorType.DataLoadingFailed,
+                            "Task load is not answered in time"));
                 }
-            });
+                return;
+            }
+            final DataState value = state.get(key);
+            if (value == null) {
+                return;
+            }
+            if (kind == DeadlineQueue.Kind.EXPIRE) {
+                log().warning("Cleaning up state {}", AkkaUtils.toTraceId(key));
+                state.remove(key);
+                expiredStates.increment();
+                return;
+            }
+            // if retry window not exceeded and state not done after delay,
+            // then we resent requests that was not processed.
+            // Only one deadline per state is scheduled at a time: next retry or the expiration
+            if (now - value.getCreatedNanos() < retryWindow) {
+                final int resent = value.resendRequests(self());
+                counter.add(resent);
+                retries.increment(resent);
+                deadlines.schedule(now + configuration.getResponseTimeout().toNanos(), key, DeadlineQueue.Kind.RETRY);
+            } else {
+                deadlines.schedule(value.getCreatedNanos() + configuration.getStateTtl().toNanos(), key, DeadlineQueue.Kind.EXPIRE);
+            }
         });
-        removeKeys.forEach(state::remove);
+        if (deadlines.size() > 0) {
+            wakeUp(deadlines.peekDeadline());
+        }
         return counter.getValue();
     }
 
     private void processTaskDataRequest(final TaskDataRequest request) {
-        log().debug("DataLoaderActor.processProductDataRequest {} : {}", context().self(), request.getTraceId());
-        processDataRequest(request,
-                taskLoaderActor,
-                100,
-                TaskDataRequest::getTraceId);
+        if (log().isDebugEnabled()) {
+            log().debug("DataLoaderActor.processTaskDataRequest {} : {}",
+                    context().self(), AkkaUtils.toTraceId(request.getCorrelationId()));
+        }
+        if (shed(request.getCorrelationId())) {
+            return;
+        }
+        final DataState dataState = createState(request.getCorrelationId(), true);
+        sendRequest(dataState, request.getCorrelationId(), taskLoaderActor, request);
     }
 
     private void processTaskDataResponse(final TaskDataResponse response) {
-        log().debug("DataLoaderActor.processProductDataResponse {} : {}", context().self(), response.getTraceId());
-        AkkaUtils.consumeResponseWithStateId(response, response.getTraceId(), this.state,
-                (TaskDataResponse resp, DataState actorState) -> actorState.addData(resp.getTraceId(), resp));
-    }
-
-    private <R extends GeneratedMessageV3> void processDataRequest(final R request,
-                                                                   final ActorRef loaderActor,
-                                                                   final Integer delay,
-                                                                   java.util.function.Function<R, String> traceIdFunction) {
-        final String traceId = traceIdFunction.apply(request);
-        final DataState dataState = new DataState(this, sender(), traceId);
-        this.state.put(traceId, dataState);
-        final Consumer<ActorRef> call = ref -> loaderActor.tell(request, ref);
+        if (log().isDebugEnabled()) {
+            log().debug("DataLoaderActor.processTaskDataResponse {} : {}",
+                    context().self(), AkkaUtils.toTraceId(response.getCorrelationId()));
+        }
+        AkkaUtils.consumeResponseWithStateId(response, response.getCorrelationId(), this.state,
+                (TaskDataResponse resp, DataState actorState) -> actorState.addData(resp.getCorrelationId(), resp));
+    }
+
+    private void processTaskBatchDataRequest(final TaskBatchDataRequest request) {
+        if (log().isDebugEnabled()) {
+            log().debug("DataLoaderActor.processTaskBatchDataRequest {} : {} ({} ids)",
+                    context().self(), AkkaUtils.toTraceId(request.getCorrelationId()), request.getIdsCount());
+        }
+        if (shed(request.getCorrelationId())) {
+            return;
+        }
+        final DataState dataState = createState(request.getCorrelationId(), false);
+        // tasks that are already loading are attached to the load in flight, others are loaded by new loads:
+        // one per partition, because each partition has its own owner on the consistent hashing ring.
+        // Loads in flight could return cached tasks, so uncached requests are never attached to them
+        final Map<Integer, TaskBatchDataRequest.Builder> newLoads = new HashMap<>();
+        final Map<TaskLoadState, Set<Integer>> attached = new IdentityHashMap<>();
+        for (final Integer id : new LinkedHashSet<>(request.getIdsList())) {
+            final TaskLoadState load = request.getBypassCache() ? null : loadsByTaskId.get(id);
+            if (load != null) {
+                attached.computeIfAbsent(load, key -> new HashSet<>()).add(id);
+            } else {
+                final int partition = taskRouterConfiguration.isConsistentHashing()
+                        ? taskRouterConfiguration.partition(id)
+                        : request.getPartition();
+                newLoads.computeIfAbsent(partition, key -> TaskBatchDataRequest.newBuilder()
+                        .setCorrelationId(AkkaUtils.nextCorrelationId())
+                        .setPartition(key)
+                        .setBypassCache(request.getBypassCache())
+                        .addAllAttributes(request.getAttributesList()))
+                        .addIds(id);
+            }
+        }
+        newLoads.values().forEach(builder -> {
+            final TaskBatchDataRequest loadRequest = builder.build();
+            // routee is selected with the router logic, so the hedged load could be sent to another node,
+            // routees of the ejected nodes are skipped
+            final Routee routee = routees.isEmpty() ? null : taskRoutingLogic.select(loadRequest, routees);
+            final Address node = node(routee);
+            if (node != null) {
+                routee.send(loadRequest, self());
+            } else {
+                taskLoaderActor.tell(loadRequest, self());
+            }
+            final TaskLoadState load = new TaskLoadState(loadRequest, node);
+            loads.put(load.getLoadId(), load);
+            load.getRequest().getIdsList().forEach(id -> loadsByTaskId.put(id, load));
+            load.attach(dataState, null);
+            dataState.expectResponse(load.getLoadId(), taskLoaderActor, loadRequest);
+            deadlines.schedule(dataState.getCreatedNanos() + configuration.getStateTtl().toNanos(),
+                    load.getLoadId(), DeadlineQueue.Kind.LOAD_EXPIRE);
+            scheduleHedge(load, load.getSentNanos());
+            hedgeBudget.deposit();
+            sentLoads.increment(load.getRequest().getIdsCount());
+        });
+        attached.forEach((load, ids) -> {
+            load.attach(dataState, ids);
+            dataState.expectResponse(load.getLoadId(), taskLoaderActor, load.getRequest());
+            collapsedLoads.increment(ids.size());
+        });
+        // nothing to load
+        if (dataState.isDone()) {
+            state.remove(dataState.getCorrelationId());
+        }
+    }
+
+    private void processTaskBatchDataResponse(final TaskBatchDataResponse response) {
+        if (log().isDebugEnabled()) {
+            log().debug("DataLoaderActor.processTaskBatchDataResponse {} : {}",
+                    context().self(), AkkaUtils.toTraceId(response.getCorrelationId()));
+        }
+        final TaskLoadState load = loads.remove(response.getCorrelationId());
+        if (load == null) {
+            // response to the resent or expired load
+            log().debug("Task load was not found for {}", AkkaUtils.toTraceId(response.getCorrelationId()));
+            return;
+        }
+        releaseTasks(load);
+        final long now = System.nanoTime();
+        final Address node = node(sender().path().address());
+        roundTripTimer(node).record(now - load.getSentNanos(), TimeUnit.NANOSECONDS);
+        final long latency = load.getResponseNanos(node, now);
+        latencies.record(latency);
+        nodeLatencies.computeIfAbsent(node, key -> new LatencyTracker(configuration.getLatencyWindow())).record(latency);
+        // responding node is slow if it answered after the response timeout,
+        // other nodes are slow if they did not answer within the response timeout
+        final long responseTimeout = configuration.getResponseTimeout().toNanos();
+        load.forEachNode((sentTo, sentNanos) -> {
+            if (sentTo == null) {
+                return;
+            }
+            if (sentTo.equals(node) && now - sentNanos <= responseTimeout) {
+                if (taskRoutingLogic.onSuccess(sentTo)) {
+                    log().info("Task loader node {} is returned to routing", sentTo);
+                }
+            } else if (now - sentNanos > responseTimeout) {
+                onNodeFailure(sentTo);
+            }
+        });
+        load.complete(response, (dataState, part) -> {
+            // attached state could be already expired
+            if (state.get(dataState.getCorrelationId()) == dataState) {
+                dataState.addData(load.getLoadId(), part);
+                if (dataState.isDone()) {
+                    state.remove(dataState.getCorrelationId());
+                }
+            }
+        });
+    }
+
+    private void processFailureResponse(final FailureResponse response) {
+        if (log().isDebugEnabled()) {
+            log().debug("DataLoaderActor.processFailureResponse {} : {}",
+                    context().self(), AkkaUtils.toTraceId(response.getCorrelationId()));
+        }
+        final DataLoadingException error = new DataLoadingException(DataErrorType.DataLoadingFailed,
+                "Data loading failed: " + response.getMessage());
+        final TaskLoadState load = loads.get(response.getCorrelationId());
+        if (load == null) {
+            // single task request, or the task load that is already completed or expired
+            final DataState dataState = state.remove(response.getCorrelationId());
+            if (dataState != null) {
+                dataState.fail(error);
+            }
+            return;
+        }
+        // other nodes could still answer the load, otherwise it is hedged to another node right away
+        if (!load.fail() || hedge(load, System.nanoTime()) > 0) {
+            return;
+        }
+        loads.remove(load.getLoadId());
+        releaseTasks(load);
+        failWaiters(load, error);
+    }
+
+    private void failWaiters(final TaskLoadState load, final DataLoadingException error) {
+        load.forEachWaiter(dataState -> {
+            // attached state could be already expired or failed by another load
+            if (state.get(dataState.getCorrelationId()) == dataState) {
+                state.remove(dataState.getCorrelationId());
+                dataState.fail(error);
+            }
+        });
+    }
+
+    private void releaseTasks(final TaskLoadState load) {
+        load.getRequest().getIdsList().forEach(id -> {
+            if (loadsByTaskId.get(id) == load) {
+                loadsByTaskId.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Send hedged load to the fastest task loader node, the load was not sent to yet
+     *
+     * @param load     task load in flight. Cannot be {@code null}
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return amount of sent hedged loads
+     */
+    private int hedge(final TaskLoadState load, final long nowNanos) {
+        if (load.getHedges() >= configuration.getMaxHedges()) {
+            return 0;
+        }
+        final Routee routee = fastestRoutee(load);
+        if (routee == null) {
+            return 0;
+        }
+        if (!hedgeBudget.tryWithdraw()) {
+            // throttled load is checked again on every hedge deadline, but it is counted once
+            if (!load.isThrottled()) {
+                load.setThrottled(true);
+                throttledHedges.increment();
+            }
+            scheduleHedge(load, nowNanos);
+            return 0;
+        }
+        final Address node = node(routee);
+        routee.send(load.getRequest(), self());
+        load.hedge(node);
+        taskRoutingLogic.onSent(node);
+        sentHedges.increment();
+        scheduleHedge(load, nowNanos);
+        return 1;
+    }
+
+    private Routee fastestRoutee(final TaskLoadState load) {
+        Routee fastest = null;
+        long fastestLatency = Long.MAX_VALUE;
+        for (final Routee routee : routeeList) {
+            final Address node = node(routee);
+            if (node != null && !load.isSentTo(node) && taskRoutingLogic.isAvailable(node)) {
+                final long latency = latencyPercentile(node);
+                if (latency < fastestLatency) {
+                    fastest = routee;
+                    fastestLatency = latency;
+                }
+            }
+        }
+        return fastest;
+    }
+
+    private void scheduleHedge(final TaskLoadState load, final long nowNanos) {
+        final long maxDelay = configuration.getResponseTimeout().toNanos();
+        final long percentile = latencyPercentile(load.getPrimaryNode());
+        // till enough responses are observed, loads are hedged after the response timeout
+        final long delay = percentile < 0
+                ? maxDelay
+                : Math.max(configuration.getMinHedgeDelay().toNanos(), Math.min(maxDelay, percentile));
+        final long deadline = nowNanos + delay;
+        deadlines.schedule(deadline, load.getLoadId(), DeadlineQueue.Kind.HEDGE);
+        wakeUp(deadline);
+    }
+
+    /**
+     * Wake the actor up at the deadline, unless it is already woken up earlier
+     *
+     * @param deadlineNanos deadline as {@link System#nanoTime()} value
+     */
+    private void wakeUp(final long deadlineNanos) {
+        if (!wakeUpScheduled || deadlineNanos - wakeUpNanos < 0) {
+            wakeUpScheduled = true;
+            wakeUpNanos = deadlineNanos;
+            getTimers().startSingleTimer(WAKE_UP_TIMER,
+                    new CheckTick(LocalDateTime.now(), this.getSelf().path().toString()),
+                    Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime())));
+        }
+    }
+
+    /**
+     * Retrieves latency percentile of the node, or of all nodes when the node has not enough responses
+     *
+     * @param node task loader node. Can be {@code null}
+     * @return latency percentile in nanoseconds, or {@code -1} if there are not enough responses
+     */
+    private long latencyPercentile(final Address node) {
+        final LatencyTracker tracker = node == null ? null : nodeLatencies.get(node);
+        final long percentile = tracker == null ? -1 : tracker.percentile(configuration.getHedgePercentile());
+        return percentile < 0 ? latencies.percentile(configuration.getHedgePercentile()) : percentile;
+    }
+
+    private void refreshRoutees(final RefreshRoutees refresh) {
+        taskLoaderActor.tell(GetRoutees.getInstance(), self());
+    }
+
+    private void updateRoutees(final Routees current) {
+        routerRoutees = current.getRoutees();
+        applyRoutees();
+    }
+
+    private void updateReachability(final Address node, final boolean reachable) {
+        final boolean changed = reachable ? unreachableNodes.remove(node) : unreachableNodes.add(node);
+        if (changed) {
+            applyRoutees();
+        }
+        // router updates its routees on the same events
+        refreshRoutees(RefreshRoutees.INSTANCE);
+    }
+
+    private void applyRoutees() {
+        final List<Routee> reachable = new ArrayList<>(routerRoutees.size());
+        final VectorBuilder<Routee> builder = new VectorBuilder<>();
+        routerRoutees.forEach(routee -> {
+            if (!unreachableNodes.contains(node(routee))) {
+                reachable.add(routee);
+                builder.$plus$eq(routee);
+            }
+        });
+        routees = builder.result();
+        routeeList = reachable;
+        taskRoutingLogic.updateRoutees(routees);
+    }
+
+    private void onNodeFailure(final Address node) {
+        if (node != null && taskRoutingLogic.onFailure(node)) {
+            ejections.increment();
+            log().warning("Task loader node {} is ejected from routing: task loads are not answered in time", node);
+        }
+    }
+
+    /**
+     * Reject the request, when there are too many requests in flight on this data loader actor
+     *
+     * @param correlationId correlation ID of the request
+     * @return {@code true} if the request is rejected. Otherwise {@code false}
+     */
+    private boolean shed(final long correlationId) {
+        if (state.size() < configuration.getMaxInFlightPerActor()) {
+            return false;
+        }
+        shedRequests.increment();
+        if (log().isDebugEnabled()) {
+            log().debug("Request {} is rejected: {} requests in flight", AkkaUtils.toTraceId(correlationId), state.size());
+        }
+        sender().tell(new Status.Failure(new DataLoadingException(DataErrorType.Overloaded,
+                "Too many requests in flight, max is " + configuration.getMaxInFlightPerActor())), self());
+        return true;
+    }
+
+    private DataState createState(final long correlationId, final boolean retryable) {
+        final DataState dataState = new DataState(this, sender(), correlationId);
+        this.state.put(correlationId, dataState);
+        // task loads are hedged instead of retried, so their states are only expired,
+        // failed task loads fail their states right away
+        if (retryable) {
+            deadlines.schedule(dataState.getCreatedNanos() + configuration.getResponseTimeout().toNanos(),
+                    correlationId, DeadlineQueue.Kind.RETRY);
+        } else {
+            deadlines.schedule(dataState.getCreatedNanos() + configuration.getStateTtl().toNanos(),
+                    correlationId, DeadlineQueue.Kind.EXPIRE);
+        }
+        return dataState;
+    }
+
+    private void sendRequest(final DataState dataState,
+                             final long requestId,
+                             final ActorRef loaderActor,
+                             final Object request) {
         // ask for data
-        call.accept(self());
+        loaderActor.tell(request, self());
         // expect response
-        dataState.expectResponse(traceId, new RetryableRequest(delay, call));
+        dataState.expectResponse(requestId, loaderActor, request);
+    }
+
+    private Timer roundTripTimer(final Address node) {
+        return roundTripTimers.computeIfAbsent(node, key -> Timer.builder("akka.data-loader.round-trip")
+                .description("Time from the first task load request till the task loader response")
+                .tag("node", key.hostPort())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Address node(final Address address) {
+        // local actors have no host in the address
+        return address.hasLocalScope()
+                ? ((ExtendedActorSystem) context().system()).provider().getDefaultAddress()
+                : address;
+    }
+
+    private Address node(final Routee routee) {
+        if (routee instanceof ActorSelectionRoutee) {
+            return node(((ActorSelectionRoutee) routee).selection().anchorPath().address());
+        } else if (routee instanceof ActorRefRoutee) {
+            return node(((ActorRefRoutee) routee).ref().path().address());
+        }
+        // no routee
+        return null;
+    }
+
+    private static Counter hedgesCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("akka.data-loader.hedges")
+                .description("Amount of task loads, that were hedged to another task loader or throttled by the hedge budget")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter expiredCounter(final MeterRegistry meterRegistry, final String kind) {
+        return Counter.builder("akka.data-loader.expired")
+                .description("Amount of request states or task loads, that were dropped without the response")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static Counter loadsCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("akka.data-loader.task.loads")
+                .description("Amount of requested tasks, that were sent to the task loaders or collapsed into the loads in flight")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     private void processEmptyResponse(final EmptyResponse response) {
-        log().debug("DataLoaderActor.processEmptyResponse {} : {}", context().self(), response.getTraceId());
-        AkkaUtils.consumeResponseWithStateId(response, response.getTraceId(), this.state,
+        if (log().isDebugEnabled()) {
+            log().debug("DataLoaderActor.processEmptyResponse {} : {}",
+                    context().self(), AkkaUtils.toTraceId(response.getCorrelationId()));
+        }
+        AkkaUtils.consumeResponseWithStateId(response, response.getCorrelationId(), this.state,
                 (EmptyResponse resp, DataState actorState) ->
-                        actorState.emptyResponse(resp.getTraceId()));
+                        actorState.emptyResponse(resp.getCorrelationId()));
+    }
+
+    /**
+     * Payload for messages triggering the task router routees refresh
+     */
+    private static final class RefreshRoutees {
+
+        private static final RefreshRoutees INSTANCE = new RefreshRoutees();
     }
 }
 
@@ -0,0 +1,46 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka;
+
+import akka.actor.AbstractLoggingActor;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.query.PersistedQuery;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Persisted Query Actor.
+ * Receives persisted queries registered on any cluster node
+ * and stores them in the node local store.
+ *
+ * @see AbstractLoggingActor
+ */
+public class PersistedQueryActor extends AbstractLoggingActor {
+
+    public static final String NAME = "persistedQueryActor";
+    public static final String TOPIC = "graphql-persisted-queries";
+
+    private final BiConsumer<String, String> localStore;
+
+    /**
+     * PersistedQueryActor constructor
+     *
+     * @param localStore node local store, that accepts hash and query. Cannot be {@code null}
+     */
+    public PersistedQueryActor(final BiConsumer<String, String> localStore) {
+        this.localStore = localStore;
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(PersistedQuery.class, this::store)
+                .match(DistributedPubSubMediator.SubscribeAck.class,
+                        ack -> log().info("Subscribed to {}", ack.subscribe().topic()))
+                .matchAny(this::unhandled)
+                .build();
+    }
+
+    private void store(final PersistedQuery query) {
+        log().debug("PersistedQueryActor {} : {}", context().self(), query.getHash());
+        localStore.accept(query.getHash(), query.getQuery());
+    }
+}
@@ -0,0 +1,46 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka;
+
+import akka.actor.AbstractLoggingActor;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskInvalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Task Invalidation Actor.
+ * Receives task invalidations published on any cluster node
+ * and removes the tasks from the node local cache.
+ *
+ * @see AbstractLoggingActor
+ */
+public class TaskInvalidationActor extends AbstractLoggingActor {
+
+    public static final String NAME = "taskInvalidationActor";
+    public static final String TOPIC = "task-invalidations";
+
+    private final Consumer<Iterable<Integer>> localCache;
+
+    /**
+     * TaskInvalidationActor constructor
+     *
+     * @param localCache node local cache invalidation, that accepts task ids. Cannot be {@code null}
+     */
+    public TaskInvalidationActor(final Consumer<Iterable<Integer>> localCache) {
+        this.localCache = localCache;
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(TaskInvalidation.class, this::invalidate)
+                .match(DistributedPubSubMediator.SubscribeAck.class,
+                        ack -> log().info("Subscribed to {}", ack.subscribe().topic()))
+                .matchAny(this::unhandled)
+                .build();
+    }
+
+    private void invalidate(final TaskInvalidation invalidation) {
+        log().debug("TaskInvalidationActor {} : {} ids", context().self(), invalidation.getIdsCount());
+        localCache.accept(invalidation.getIdsList());
+    }
+}
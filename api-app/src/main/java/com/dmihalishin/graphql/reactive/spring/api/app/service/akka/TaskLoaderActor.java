@@ -1,49 +1,167 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.service.akka;
 
 import akka.actor.AbstractLoggingActor;
+import akka.actor.ActorRef;
+import akka.event.LoggingAdapter;
 import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.Actor;
-import com.dmihalishin.graphql.reactive.spring.api.app.dao.TaskRepository;
+import com.dmihalishin.graphql.reactive.spring.api.app.dao.TaskStore;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.cache.TaskEntityCache;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.EmptyResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.FailureResponse;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.Reference;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataResponse;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataRequest;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataResponse;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskEntity;
-import lombok.RequiredArgsConstructor;
+import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Flux;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Task Loader Actor.
+ * Loads tasks through the node local cache. The actor never waits for the store:
+ * response is sent when the load completes, so with the non-blocking store the actor thread is never blocked.
+ *
+ * @see TaskEntityCache
+ * @see TaskStore
+ */
 @Actor(TaskLoaderActor.NAME)
-@RequiredArgsConstructor
 public class TaskLoaderActor extends AbstractLoggingActor {
 
     public static final String NAME = "taskLoaderActor";
     public static final String ACTOR_NAME = "/user/taskLoaderActor";
-    private final TaskRepository taskRepository;
+    private final TaskStore taskStore;
+    private final TaskEntityCache taskEntityCache;
+    private final int chunkSize;
+
+    /**
+     * TaskLoaderActor constructor
+     *
+     * @param taskStore       task store. Cannot be {@code null}
+     * @param taskEntityCache task cache. Cannot be {@code null}
+     * @param chunkSize       max amount of ids in a single bulk query
+     */
+    public TaskLoaderActor(final TaskStore taskStore,
+                           final TaskEntityCache taskEntityCache,
+                           @Value("${config.task-loader.chunk-size: 1000}") final int chunkSize) {
+        this.taskStore = taskStore;
+        this.taskEntityCache = taskEntityCache;
+        this.chunkSize = chunkSize;
+    }
 
     @Override
     public Receive createReceive() {
         return receiveBuilder()
                 .match(TaskDataRequest.class, this::load)
+                .match(TaskBatchDataRequest.class, this::loadBatch)
                 .matchAny(this::unhandled)
                 .build();
     }
 
     private void load(final TaskDataRequest request) {
-        log().debug("TaskLoaderActor {} : {}", context().self(), request.getTraceId());
-
-        if (taskRepository.existsById(request.getId())) {
-            final TaskEntity entity = TaskEntity.newBuilder()
-                    .setId(request.getId())
-                    .setName("Test " + request.getId())
-                    .setStatus(Reference.newBuilder()
-                            .setCode("DONE")
-                            .setDescription("Done").build()).build();
-            sender().tell(TaskDataResponse.newBuilder()
-                    .setTraceId(request.getTraceId())
-                    .setEntity(entity)
-                    .build(), self());
-        } else {
-            sender().tell(EmptyResponse.newBuilder()
-                    .setTraceId(request.getTraceId())
-                    .build(), self());
+        if (log().isDebugEnabled()) {
+            log().debug("TaskLoaderActor {} : {}", context().self(), AkkaUtils.toTraceId(request.getCorrelationId()));
         }
+
+        final ActorRef sender = sender();
+        final ActorRef self = self();
+        final LoggingAdapter log = log();
+        taskEntityCache.get(request.getId(), this::loadEntity).whenComplete((entity, error) -> {
+            if (error != null) {
+                // failure is answered, so the data loader does not wait for the response till the state expires
+                log.error(error, "Task {} loading failed", request.getId());
+                sender.tell(failure(request.getCorrelationId(), error), self);
+            } else if (entity.isPresent()) {
+                sender.tell(TaskDataResponse.newBuilder()
+                        .setCorrelationId(request.getCorrelationId())
+                        .setEntity(entity.get())
+                        .build(), self);
+            } else {
+                sender.tell(EmptyResponse.newBuilder()
+                        .setCorrelationId(request.getCorrelationId())
+                        .build(), self);
+            }
+        });
+    }
+
+    /**
+     * Load all requested tasks at once and reply with a single response.
+     * Tasks that do not exist are simply absent from the response entities.
+     * Uncached requests are loaded from the store and do not update the cache.
+     *
+     * @param request batch request. Cannot be {@code null}
+     */
+    private void loadBatch(final TaskBatchDataRequest request) {
+        if (log().isDebugEnabled()) {
+            log().debug("TaskLoaderActor {} : {} ({} ids)",
+                    context().self(), AkkaUtils.toTraceId(request.getCorrelationId()), request.getIdsCount());
+        }
+
+        final ActorRef sender = sender();
+        final ActorRef self = self();
+        final LoggingAdapter log = log();
+        final CompletableFuture<Map<Integer, Optional<TaskEntity>>> loaded = request.getBypassCache()
+                ? loadEntities(request.getIdsList())
+                : taskEntityCache.getAll(request.getIdsList(), this::loadEntities);
+        loaded.whenComplete((entities, error) -> {
+            if (error != null) {
+                // failure is answered, so the data loader could hedge the load to another node or fail it right away
+                log.error(error, "Tasks loading failed for {}", AkkaUtils.toTraceId(request.getCorrelationId()));
+                sender.tell(failure(request.getCorrelationId(), error), self);
+                return;
+            }
+            final TaskBatchDataResponse.Builder response = TaskBatchDataResponse.newBuilder()
+                    .setCorrelationId(request.getCorrelationId())
+                    .setPartition(request.getPartition());
+            entities.values().forEach(entity -> entity.ifPresent(response::addEntities));
+            sender.tell(response.build(), self);
+        });
+    }
+
+    private static FailureResponse failure(final long correlationId, final Throwable error) {
+        return FailureResponse.newBuilder()
+                .setCorrelationId(correlationId)
+                .setMessage(String.valueOf(error.getMessage()))
+                .build();
+    }
+
+    private CompletableFuture<Optional<TaskEntity>> loadEntity(final int id) {
+        return taskStore.existsById(id)
+                .map(exists -> exists ? Optional.of(buildEntity(id)) : Optional.<TaskEntity>empty())
+                .toFuture();
+    }
+
+    private CompletableFuture<Map<Integer, Optional<TaskEntity>>> loadEntities(final Iterable<? extends Integer> ids) {
+        final List<Integer> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        // one query per chunk, so huge id lists do not produce huge IN clauses
+        return Flux.fromIterable(ListUtils.partition(idList, chunkSize))
+                .concatMap(chunk -> taskStore.findExistingIds(chunk)
+                        .flatMapIterable(existing -> {
+                            final List<Map.Entry<Integer, Optional<TaskEntity>>> entities = new ArrayList<>(chunk.size());
+                            chunk.forEach(id -> entities.add(Map.entry(id,
+                                    existing.contains(id) ? Optional.of(buildEntity(id)) : Optional.empty())));
+                            return entities;
+                        }))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, () -> new HashMap<>(idList.size() * 2))
+                .toFuture();
+    }
+
+    private static TaskEntity buildEntity(final int id) {
+        return TaskEntity.newBuilder()
+                .setId(id)
+                .setName("Test " + id)
+                .setStatus(Reference.newBuilder()
+                        .setCode("DONE")
+                        .setDescription("Done").build()).build();
     }
 }
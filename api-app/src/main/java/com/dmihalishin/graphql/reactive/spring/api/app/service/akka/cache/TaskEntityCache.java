@@ -0,0 +1,126 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.cache;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.pubsub.DistributedPubSub;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.TaskInvalidationActor;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskEntity;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskInvalidation;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Node local cache of the loaded tasks in front of the task repository.
+ * Missing tasks are cached as well (as empty values), so unknown ids do not hit the database each time.
+ * Caffeine uses W-TinyLFU admission, entries are evicted by size and TTL.
+ * Loads are asynchronous: concurrent requests of the same task share the load in progress.
+ * Invalidations are replicated to all cluster nodes with the distributed pub/sub topic.
+ *
+ * @see TaskInvalidationActor
+ */
+@Profile("!test")
+@Component
+public class TaskEntityCache {
+
+    static final String CACHE_NAME = "akka.task-entities";
+
+    private final AsyncCache<Integer, Optional<TaskEntity>> cache;
+
+    private final ActorRef mediator;
+
+    /**
+     * TaskEntityCache constructor
+     *
+     * @param system        actor system. Cannot be {@code null}
+     * @param maxSize       max amount of cached tasks
+     * @param ttl           time to keep the loaded task. Cannot be {@code null}
+     * @param meterRegistry meter registry. Cannot be {@code null}
+     */
+    public TaskEntityCache(final ActorSystem system,
+                           @Value("${config.task-cache.max-size: 10000}") final long maxSize,
+                           @Value("${config.task-cache.ttl: 60s}") final Duration ttl,
+                           final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        final Cache<Integer, Optional<TaskEntity>> syncView = cache.synchronous();
+        CaffeineCacheMetrics.monitor(meterRegistry, syncView, CACHE_NAME);
+        // CaffeineCacheMetrics exports load statistics only for loading caches
+        TimeGauge.builder("cache.load.duration", syncView, TimeUnit.NANOSECONDS, c -> c.stats().totalLoadTime())
+                .tag("cache", CACHE_NAME)
+                .description("The time the cache has spent loading new values")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.load", syncView, c -> c.stats().loadSuccessCount())
+                .tags("cache", CACHE_NAME, "result", "success")
+                .description("The number of times cache lookup methods have successfully loaded a new value")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.load", syncView, c -> c.stats().loadFailureCount())
+                .tags("cache", CACHE_NAME, "result", "failure")
+                .description("The number of times cache lookup methods failed to load a new value")
+                .register(meterRegistry);
+        this.mediator = DistributedPubSub.get(system).mediator();
+        final ActorRef subscriber = system.actorOf(
+                Props.create(TaskInvalidationActor.class, () -> new TaskInvalidationActor(syncView::invalidateAll)),
+                TaskInvalidationActor.NAME);
+        mediator.tell(new DistributedPubSubMediator.Subscribe(TaskInvalidationActor.TOPIC, subscriber), subscriber);
+    }
+
+    /**
+     * Retrieves task from the cache or loads it
+     *
+     * @param id     task id
+     * @param loader task loader. Cannot be {@code null}
+     * @return task or empty value, if task does not exist
+     */
+    public CompletableFuture<Optional<TaskEntity>> get(final int id,
+                                                       final IntFunction<CompletableFuture<Optional<TaskEntity>>> loader) {
+        return cache.get(id, (key, executor) -> loader.apply(key));
+    }
+
+    /**
+     * Retrieves tasks from the cache and loads the missing ones at once
+     *
+     * @param ids    task ids. Cannot be {@code null}
+     * @param loader loader of the missing tasks. It must return value for each requested id. Cannot be {@code null}
+     * @return tasks or empty values by id
+     */
+    public CompletableFuture<Map<Integer, Optional<TaskEntity>>> getAll(
+            final Collection<Integer> ids,
+            final Function<Iterable<? extends Integer>, CompletableFuture<Map<Integer, Optional<TaskEntity>>>> loader) {
+        return cache.getAll(ids, (keys, executor) -> loader.apply(keys));
+    }
+
+    /**
+     * Invalidate tasks on all cluster nodes
+     *
+     * @param ids task ids. Cannot be {@code null}
+     */
+    public void invalidate(final Collection<Integer> ids) {
+        cache.synchronous().invalidateAll(ids);
+        mediator.tell(new DistributedPubSubMediator.Publish(TaskInvalidationActor.TOPIC,
+                TaskInvalidation.newBuilder()
+                        .addAllIds(ids)
+                        .build()), ActorRef.noSender());
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * All node local caches used by the AKKA actors should be located in this package
+ */
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.cache;
@@ -2,12 +2,9 @@ package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state;
 
 import akka.actor.ActorRef;
 import akka.event.LoggingAdapter;
+import com.dmihalishin.graphql.reactive.spring.api.app.util.LongHashMap;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract Actor state
@@ -17,51 +14,81 @@ import java.util.Map;
 public abstract class ActorState<T> {
 
     private final ActorRef target;
-    private final String traceUuid;
-    private final LocalDateTime created;
-    final Map<String, RetryableRequest> requests;
+    private final long correlationId;
+    private final long createdNanos;
+    /*
+     * State almost always waits for a single response, so the first expected request is kept inline
+     * and the map is allocated only when the second request is expected at the same time.
+     */
+    private long inlineRequestId;
+    private ActorRef inlineDestination;
+    private Object inlineMessage;
+    private LongHashMap<RetryableRequest> requests;
 
-    ActorState(final ActorRef target, final String traceUuid) {
+    ActorState(final ActorRef target, final long correlationId) {
         this.target = target;
-        this.traceUuid = traceUuid;
-        this.created = LocalDateTime.now();
-        this.requests = new HashMap<>();
+        this.correlationId = correlationId;
+        this.createdNanos = System.nanoTime();
     }
 
     /**
      * Handle empty response, that come for specific request ID.
      *
-     * @param requestId request id. Cannot be {@code null}
+     * @param requestId request id
      */
-    public void emptyResponse(final String requestId) {
-        requests.remove(requestId);
-        logger().debug("Empty Request processing: waiting {}", requests.size());
+    public void emptyResponse(final long requestId) {
+        removeRequest(requestId);
+        logger().debug("Empty Request processing: waiting {}", waitingRequests());
     }
 
     /**
      * Add request ID to the list, to expected response for it
      *
-     * @param requestId request id. Cannot be {@code null}
-     * @param request   {@code RetryableRequest} that could be used in Retry Logic.
-     *                  Cannot be {@code null}
+     * @param requestId   request id
+     * @param destination actor the request was sent to. Cannot be {@code null}
+     * @param message     sent message, that could be resent in Retry Logic. Cannot be {@code null}
      */
-    public void expectResponse(final String requestId, final RetryableRequest request) {
-        requests.put(requestId, request);
+    public void expectResponse(final long requestId, final ActorRef destination, final Object message) {
+        if (inlineMessage == null || inlineRequestId == requestId) {
+            inlineRequestId = requestId;
+            inlineDestination = destination;
+            inlineMessage = message;
+        } else {
+            if (requests == null) {
+                requests = new LongHashMap<>(2);
+            }
+            requests.put(requestId, new RetryableRequest(destination, message));
+        }
     }
 
-    public Map<String, RetryableRequest> getRequests() {
-        return Collections.unmodifiableMap(requests);
+    /**
+     * Resend all requests that are still waiting for the response
+     *
+     * @param sender sender of the resent requests. Cannot be {@code null}
+     * @return amount of resent requests
+     */
+    public int resendRequests(final ActorRef sender) {
+        int count = 0;
+        if (inlineMessage != null) {
+            inlineDestination.tell(inlineMessage, sender);
+            count++;
+        }
+        if (requests != null) {
+            requests.forEach((requestId, request) -> request.resend(sender));
+            count += requests.size();
+        }
+        return count;
     }
 
     /**
      * Process response data
      *
-     * @param requestId request id. Cannot be {@code null}
+     * @param requestId request id
      * @param data      response data. Can be {@code null}
      */
-    public void addData(final String requestId, final T data) {
-        requests.remove(requestId);
-        logger().debug("Request processing: waiting {}", requests.size());
+    public void addData(final long requestId, final T data) {
+        removeRequest(requestId);
+        logger().debug("Request processing: waiting {}", waitingRequests());
         if (data != null) {
             this.updateState(data);
         }
@@ -73,12 +100,23 @@ public abstract class ActorState<T> {
      * @return return {@code true} if state not waiting any responses anymore. Otherwise {@code false}
      */
     public boolean isDone() {
-        if (requests.isEmpty()) {
-            logger().debug("Done. Sending result {}", ChronoUnit.MILLIS.between(created, LocalDateTime.now()));
-            sendResults(target, traceUuid);
+        final boolean done = waitingRequests() == 0;
+        if (done) {
+            logger().debug("Done. Sending result {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos));
+            sendResults(target, correlationId);
         }
 
-        return requests.isEmpty();
+        return done;
+    }
+
+    /**
+     * Send failure to the target actor instead of the results, state should be dropped after it
+     *
+     * @param error failure. Cannot be {@code null}
+     */
+    public void fail(final Throwable error) {
+        logger().debug("Failed. Sending failure {}", error.getMessage());
+        sendFailure(target, error);
     }
 
     /**
@@ -98,17 +136,47 @@ public abstract class ActorState<T> {
     /**
      * Send results to the target actor
      *
-     * @param target    target actor. Cannot be {@code null}
-     * @param traceUuid trace UUID of request. Cannot be {@code null}
+     * @param target        target actor. Cannot be {@code null}
+     * @param correlationId correlation ID of request
+     */
+    protected abstract void sendResults(ActorRef target, long correlationId);
+
+    /**
+     * Send failure to the target actor
+     *
+     * @param target target actor. Cannot be {@code null}
+     * @param error  failure. Cannot be {@code null}
      */
-    protected abstract void sendResults(ActorRef target, String traceUuid);
+    protected abstract void sendFailure(ActorRef target, Throwable error);
 
     /**
-     * Retrieves state created date.
+     * Retrieves correlation ID of the request, that created the state.
      *
-     * @return state created date.
+     * @return correlation ID
      */
-    public LocalDateTime getCreated() {
-        return created;
+    public long getCorrelationId() {
+        return correlationId;
+    }
+
+    /**
+     * Retrieves state creation time.
+     *
+     * @return state creation time as {@link System#nanoTime()} value.
+     */
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    private void removeRequest(final long requestId) {
+        if (inlineMessage != null && inlineRequestId == requestId) {
+            inlineDestination = null;
+            inlineMessage = null;
+        } else if (requests != null) {
+            requests.remove(requestId);
+        }
+    }
+
+    private int waitingRequests() {
+        return (inlineMessage == null ? 0 : 1) + (requests == null ? 0 : requests.size());
     }
 }
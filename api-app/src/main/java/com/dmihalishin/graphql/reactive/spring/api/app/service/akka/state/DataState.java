@@ -1,10 +1,12 @@
 package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state;
 
 import akka.actor.ActorRef;
+import akka.actor.Status;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.DataLoaderActor;
 import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.EmptyResponse;
+import com.google.protobuf.Message;
 
 import java.util.Objects;
 
@@ -24,12 +26,12 @@ public class DataState extends ActorState<Object> {
      *
      * @param dataLoaderActor data Loader Actor. Cannot be {@code null}
      * @param target          target actor. Cannot be {@code null}
-     * @param traceUuid       trace UUID. Cannot be {@code null}
+     * @param correlationId   correlation ID
      */
     public DataState(final DataLoaderActor dataLoaderActor,
                      final ActorRef target,
-                     final String traceUuid) {
-        super(target, traceUuid);
+                     final long correlationId) {
+        super(target, correlationId);
         this.dataLoaderActor = dataLoaderActor;
     }
 
@@ -50,19 +52,34 @@ public class DataState extends ActorState<Object> {
      */
     @Override
     protected void updateState(final Object data) {
-        result = data;
+        if (result instanceof Message && data instanceof Message) {
+            // partial responses of the split request: repeated fields are concatenated
+            result = ((Message) result).toBuilder().mergeFrom((Message) data).build();
+        } else {
+            result = data;
+        }
     }
 
     /**
      * {@inheritDoc}
      *
-     * @see ActorState#sendResults(ActorRef, String)
+     * @see ActorState#sendResults(ActorRef, long)
      */
     @Override
-    protected void sendResults(ActorRef target, String traceUuid) {
+    protected void sendResults(ActorRef target, long correlationId) {
         target.tell(Objects.requireNonNullElseGet(
                 result,
-                () -> EmptyResponse.newBuilder().setTraceId(traceUuid).build()),
+                () -> EmptyResponse.newBuilder().setCorrelationId(correlationId).build()),
                 dataLoaderActor.self());
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ActorState#sendFailure(ActorRef, Throwable)
+     */
+    @Override
+    protected void sendFailure(ActorRef target, Throwable error) {
+        target.tell(new Status.Failure(error), dataLoaderActor.self());
+    }
 }
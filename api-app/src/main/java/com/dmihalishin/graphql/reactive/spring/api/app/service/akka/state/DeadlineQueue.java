@@ -0,0 +1,162 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state;
+
+import java.util.Arrays;
+
+/**
+ * Queue of state deadlines ordered by {@link System#nanoTime()} deadline,
+ * so each check touches only the entries that are actually due.
+ * Entries are never removed before their deadline: consumer should ignore
+ * the keys of already completed states.
+ * Deadlines are kept in a binary heap over primitive arrays, so no objects are allocated per entry.
+ */
+public class DeadlineQueue {
+
+    /**
+     * Deadline kind
+     */
+    public enum Kind {
+        /**
+         * Not answered requests of the state should be resent
+         */
+        RETRY,
+        /**
+         * State should be dropped
+         */
+        EXPIRE,
+        /**
+         * Task load, that is not answered, should be dropped
+         */
+        LOAD_EXPIRE,
+        /**
+         * Task load, that is not answered, should be hedged to another task loader
+         */
+        HEDGE
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Schedule state deadline
+     *
+     * @param deadlineNanos deadline as {@link System#nanoTime()} value
+     * @param key           state key
+     * @param kind          deadline kind. Cannot be {@code null}
+     */
+    public void schedule(final long deadlineNanos, final long key, final Kind kind) {
+        if (size == deadlines.length) {
+            final int capacity = size << 1;
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+        }
+        siftUp(size++, deadlineNanos, key, (byte) kind.ordinal());
+    }
+
+    /**
+     * Remove all deadlines that are due and pass them to the consumer.
+     * Consumer is allowed to schedule new deadlines.
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @param consumer due deadlines consumer. Cannot be {@code null}
+     * @return amount of due deadlines
+     */
+    public int pollDue(final long nowNanos, final DeadlineConsumer consumer) {
+        int count = 0;
+        while (size > 0 && deadlines[0] - nowNanos <= 0) {
+            final long key = keys[0];
+            final Kind kind = KINDS[kinds[0]];
+            removeHead();
+            consumer.accept(key, kind);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the earliest scheduled deadline. Queue should not be empty
+     *
+     * @return the earliest deadline as {@link System#nanoTime()} value
+     */
+    public long peekDeadline() {
+        return deadlines[0];
+    }
+
+    /**
+     * Retrieves amount of scheduled deadlines
+     *
+     * @return amount of scheduled deadlines
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Due deadline consumer
+     */
+    @FunctionalInterface
+    public interface DeadlineConsumer {
+
+        /**
+         * Consume due deadline
+         *
+         * @param key  state key
+         * @param kind deadline kind. Cannot be {@code null}
+         */
+        void accept(long key, Kind kind);
+    }
+
+    private void removeHead() {
+        final int last = --size;
+        if (last > 0) {
+            siftDown(deadlines[last], keys[last], kinds[last]);
+        }
+    }
+
+    private void siftUp(int index, final long deadline, final long key, final byte kind) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            // nanoTime values must be compared by difference, because of possible overflow
+            if (deadline - deadlines[parent] >= 0) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        set(index, deadline, key, kind);
+    }
+
+    private void siftDown(final long deadline, final long key, final byte kind) {
+        int index = 0;
+        final int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            final int right = child + 1;
+            if (right < size && deadlines[right] - deadlines[child] < 0) {
+                child = right;
+            }
+            if (deadline - deadlines[child] <= 0) {
+                break;
+            }
+            move(child, index);
+            index = child;
+        }
+        set(index, deadline, key, kind);
+    }
+
+    private void move(final int from, final int to) {
+        set(to, deadlines[from], keys[from], kinds[from]);
+    }
+
+    private void set(final int index, final long deadline, final long key, final byte kind) {
+        deadlines[index] = deadline;
+        keys[index] = key;
+        kinds[index] = kind;
+    }
+}
@@ -3,25 +3,32 @@ package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state;
 import akka.actor.ActorRef;
 import lombok.Getter;
 
-import java.util.function.Consumer;
-
 /**
  * Retryable Request
  */
 @Getter
 public class RetryableRequest {
 
-    private final int maxResponseTime;
-    private final Consumer<ActorRef> call;
+    private final ActorRef destination;
+    private final Object message;
 
     /**
      * Default constructor
      *
-     * @param maxResponseTime max response time in milliseconds for this call, before retry.
-     * @param call            method call. Cannot be {@code null}
+     * @param destination actor the request was sent to. Cannot be {@code null}
+     * @param message     sent message. Cannot be {@code null}
+     */
+    public RetryableRequest(final ActorRef destination, final Object message) {
+        this.destination = destination;
+        this.message = message;
+    }
+
+    /**
+     * Resend the request
+     *
+     * @param sender sender of the request. Cannot be {@code null}
      */
-    public RetryableRequest(int maxResponseTime, Consumer<ActorRef> call) {
-        this.maxResponseTime = maxResponseTime;
-        this.call = call;
+    public void resend(final ActorRef sender) {
+        destination.tell(message, sender);
     }
 }
@@ -0,0 +1,191 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.state;
+
+import akka.actor.Address;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataResponse;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * State of the task load, that was sent to the task loader actors and waits for the response.
+ * Several data states could wait for the same load, when they request the same tasks at the same time.
+ * Load could be hedged: sent again to other task loaders, the first response wins.
+ */
+public class TaskLoadState {
+
+    @Getter
+    private final TaskBatchDataRequest request;
+
+    /**
+     * Time of the first load request as {@link System#nanoTime()} value
+     */
+    @Getter
+    private final long sentNanos = System.nanoTime();
+
+    private final List<DataState> waiters = new ArrayList<>(1);
+
+    private final List<Set<Integer>> waiterIds = new ArrayList<>(1);
+
+    /* nodes the load was sent to and the send times, the first one is the primary load */
+    private final List<Address> nodes = new ArrayList<>(1);
+
+    private long[] nodeSentNanos = new long[1];
+
+    private int failures;
+
+    /**
+     * Hedged load was throttled by the hedge budget at least once
+     */
+    @Getter
+    @Setter
+    private boolean throttled;
+
+    /**
+     * Task Load State constructor
+     *
+     * @param request sent load request. Cannot be {@code null}
+     * @param node    node of the task loader the load was sent to. {@code null} if it is not known
+     */
+    public TaskLoadState(final TaskBatchDataRequest request, final Address node) {
+        this.request = request;
+        this.nodes.add(node);
+        this.nodeSentNanos[0] = sentNanos;
+    }
+
+    /**
+     * Record hedged load, that was sent to another task loader
+     *
+     * @param node node of the task loader the load was sent to. {@code null} if it is not known
+     */
+    public void hedge(final Address node) {
+        if (nodes.size() == nodeSentNanos.length) {
+            nodeSentNanos = Arrays.copyOf(nodeSentNanos, nodes.size() << 1);
+        }
+        nodeSentNanos[nodes.size()] = System.nanoTime();
+        nodes.add(node);
+    }
+
+    /**
+     * Retrieves amount of hedged loads
+     *
+     * @return amount of hedged loads
+     */
+    public int getHedges() {
+        return nodes.size() - 1;
+    }
+
+    /**
+     * Retrieves primary load node
+     *
+     * @return node of the task loader the primary load was sent to. {@code null} if it is not known
+     */
+    public Address getPrimaryNode() {
+        return nodes.get(0);
+    }
+
+    /**
+     * Check if the load was already sent to the node
+     *
+     * @param node node of the task loader. Cannot be {@code null}
+     * @return {@code true} if the load or one of the hedged loads was sent to the node. Otherwise {@code false}
+     */
+    public boolean isSentTo(final Address node) {
+        return nodes.contains(node);
+    }
+
+    /**
+     * Visit all nodes the load was sent to, with the time the load was sent to them
+     *
+     * @param consumer consumer of the node and the {@link System#nanoTime()} value the load was sent at.
+     *                 Cannot be {@code null}
+     */
+    public void forEachNode(final ObjLongConsumer<Address> consumer) {
+        for (int i = 0; i < nodes.size(); i++) {
+            consumer.accept(nodes.get(i), nodeSentNanos[i]);
+        }
+    }
+
+    /**
+     * Retrieves time since the load was sent to the responding node
+     *
+     * @param node     node of the responding task loader. Cannot be {@code null}
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return response time in nanoseconds, since the latest load sent to the node,
+     * or since the first load request if the load was not sent to the node directly
+     */
+    public long getResponseNanos(final Address node, final long nowNanos) {
+        final int index = nodes.lastIndexOf(node);
+        return nowNanos - nodeSentNanos[Math.max(0, index)];
+    }
+
+    /**
+     * Record failed load of one of the nodes
+     *
+     * @return {@code true} if all nodes the load was sent to failed it. Otherwise {@code false}
+     */
+    public boolean fail() {
+        return ++failures >= nodes.size();
+    }
+
+    /**
+     * Visit all attached data states
+     *
+     * @param consumer consumer of the data state. Cannot be {@code null}
+     */
+    public void forEachWaiter(final Consumer<DataState> consumer) {
+        waiters.forEach(consumer);
+    }
+
+    /**
+     * Retrieves load ID
+     *
+     * @return correlation ID of the load request
+     */
+    public long getLoadId() {
+        return request.getCorrelationId();
+    }
+
+    /**
+     * Attach data state to the load
+     *
+     * @param dataState data state. Cannot be {@code null}
+     * @param ids       task ids the data state waits for. {@code null} if it waits for all tasks of the load
+     */
+    public void attach(final DataState dataState, final Set<Integer> ids) {
+        waiters.add(dataState);
+        waiterIds.add(ids);
+    }
+
+    /**
+     * Distribute load response over all attached data states
+     *
+     * @param response load response. Cannot be {@code null}
+     * @param consumer consumer of the data state and its part of the response. Cannot be {@code null}
+     */
+    public void complete(final TaskBatchDataResponse response,
+                         final BiConsumer<DataState, TaskBatchDataResponse> consumer) {
+        for (int i = 0; i < waiters.size(); i++) {
+            final Set<Integer> ids = waiterIds.get(i);
+            if (ids == null) {
+                consumer.accept(waiters.get(i), response);
+            } else {
+                final TaskBatchDataResponse.Builder part = TaskBatchDataResponse.newBuilder()
+                        .setCorrelationId(response.getCorrelationId());
+                response.getEntitiesList().forEach(entity -> {
+                    if (ids.contains(entity.getId())) {
+                        part.addEntities(entity);
+                    }
+                });
+                consumer.accept(waiters.get(i), part.build());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support;
+
+import akka.actor.ActorRef;
+import akka.pattern.AskTimeoutException;
+import akka.pattern.Patterns;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ask pattern, that records {@code akka.ask} latency histogram per message type and outcome
+ * (success, timeout or error).
+ *
+ * @see Patterns#ask(ActorRef, Object, Duration)
+ */
+@Component
+public class InstrumentedAsk {
+
+    private static final String METRIC = "akka.ask";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * InstrumentedAsk constructor
+     *
+     * @param meterRegistry meter registry. Cannot be {@code null}
+     */
+    public InstrumentedAsk(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Send message and wait for the response
+     *
+     * @param actor   target actor. Cannot be {@code null}
+     * @param message message. Cannot be {@code null}
+     * @param timeout response timeout. Cannot be {@code null}
+     * @return response
+     */
+    public CompletionStage<Object> ask(final ActorRef actor, final Object message, final Duration timeout) {
+        final String type = message.getClass().getSimpleName();
+        final long startNanos = System.nanoTime();
+        return Patterns.ask(actor, message, timeout).whenComplete((response, error) ->
+                timer(type, outcome(error)).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private static String outcome(final Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof AskTimeoutException ? "timeout" : "error";
+    }
+
+    private Timer timer(final String type, final String outcome) {
+        return timers.computeIfAbsent(type + ':' + outcome, key -> Timer.builder(METRIC)
+                .description("Time till the actor response")
+                .tags("type", type, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
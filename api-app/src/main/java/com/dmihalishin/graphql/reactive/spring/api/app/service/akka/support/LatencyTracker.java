@@ -0,0 +1,70 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the latest response times, that estimates the latency percentiles.
+ * Window is sorted lazily and at most once per {@code 1/8} of its size of new samples,
+ * so percentiles are cheap enough to be read for every request.
+ * Tracker is confined to a single actor, so it is not thread safe.
+ */
+public class LatencyTracker {
+
+    /**
+     * Percentiles of the smaller windows are too noisy
+     */
+    static final int MIN_SAMPLES = 20;
+
+    private final long[] samples;
+    private final long[] sorted;
+    private final int resortInterval;
+    private int size;
+    private int next;
+    private int unsorted;
+    private int sortedSize;
+
+    /**
+     * LatencyTracker constructor
+     *
+     * @param windowSize amount of the latest samples used for the percentiles. Should be positive
+     */
+    public LatencyTracker(final int windowSize) {
+        this.samples = new long[windowSize];
+        this.sorted = new long[windowSize];
+        this.resortInterval = Math.max(1, windowSize >>> 3);
+    }
+
+    /**
+     * Record response time
+     *
+     * @param nanos response time in nanoseconds
+     */
+    public void record(final long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+        unsorted++;
+    }
+
+    /**
+     * Retrieves latency percentile
+     *
+     * @param quantile percentile as a quantile in range {@code (0, 1]}, e.g. {@code 0.95}
+     * @return percentile in nanoseconds, or {@code -1} if there are not enough samples
+     */
+    public long percentile(final double quantile) {
+        if (size < MIN_SAMPLES) {
+            return -1;
+        }
+        if (sortedSize == 0 || unsorted >= resortInterval) {
+            System.arraycopy(samples, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            sortedSize = size;
+            unsorted = 0;
+        }
+        final int index = (int) Math.ceil(quantile * sortedSize) - 1;
+        return sorted[Math.max(0, Math.min(sortedSize - 1, index))];
+    }
+}
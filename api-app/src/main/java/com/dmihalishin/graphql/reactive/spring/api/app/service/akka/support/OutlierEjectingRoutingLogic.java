@@ -0,0 +1,194 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support;
+
+import akka.actor.Address;
+import akka.routing.Routee;
+import akka.routing.RoutingLogic;
+import scala.collection.immutable.IndexedSeq;
+import scala.collection.immutable.VectorBuilder;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routing logic, that removes the routees of the sick nodes (with the open circuit breaker) from routing
+ * and selects one of the remaining routees with the delegate logic.
+ * Not more than the configured share of the nodes is ejected at the same time, and when all routees are ejected,
+ * all of them are used, so the load is spread over all nodes instead of being dropped.
+ * Filtered routees are cached while the set of available nodes is the same,
+ * because the consistent hashing logic rebuilds the hash ring for every other routees instance.
+ * Logic is confined to a single actor, so it is not thread safe.
+ *
+ * @see RouteeCircuitBreaker
+ */
+public class OutlierEjectingRoutingLogic implements RoutingLogic {
+
+    private final RoutingLogic delegate;
+    private final Function<Routee, Address> nodeResolver;
+    private final Supplier<RouteeCircuitBreaker> breakerFactory;
+    private final double maxEjectionShare;
+    private final Map<Address, RouteeCircuitBreaker> breakers = new HashMap<>();
+    private IndexedSeq<Routee> routees;
+    private IndexedSeq<Routee> available;
+    private boolean[] availableMask = new boolean[0];
+
+    /**
+     * OutlierEjectingRoutingLogic constructor
+     *
+     * @param delegate         routing logic of the available routees. Cannot be {@code null}
+     * @param nodeResolver     resolver of the routee node, returns {@code null} for unknown routees. Cannot be {@code null}
+     * @param breakerFactory   factory of the node circuit breakers. Cannot be {@code null}
+     * @param maxEjectionShare max share of the nodes, that could be ejected at the same time, e.g. {@code 0.5}
+     */
+    public OutlierEjectingRoutingLogic(final RoutingLogic delegate,
+                                       final Function<Routee, Address> nodeResolver,
+                                       final Supplier<RouteeCircuitBreaker> breakerFactory,
+                                       final double maxEjectionShare) {
+        this.delegate = delegate;
+        this.nodeResolver = nodeResolver;
+        this.breakerFactory = breakerFactory;
+        this.maxEjectionShare = maxEjectionShare;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RoutingLogic#select(Object, IndexedSeq)
+     */
+    @Override
+    public Routee select(final Object message, final IndexedSeq<Routee> routees) {
+        final Routee routee = delegate.select(message, availableRoutees(routees, System.nanoTime()));
+        onSent(nodeResolver.apply(routee));
+        return routee;
+    }
+
+    /**
+     * Check if requests could be sent to the node
+     *
+     * @param node task loader node. Can be {@code null}
+     * @return {@code true} if the node is not ejected or the probe request is allowed. Otherwise {@code false}
+     */
+    public boolean isAvailable(final Address node) {
+        final RouteeCircuitBreaker breaker = node == null ? null : breakers.get(node);
+        return breaker == null || breaker.isAvailable(System.nanoTime());
+    }
+
+    /**
+     * Record request sent to the node, besides the selected one
+     *
+     * @param node task loader node. Can be {@code null}
+     */
+    public void onSent(final Address node) {
+        final RouteeCircuitBreaker breaker = node == null ? null : breakers.get(node);
+        if (breaker != null) {
+            breaker.onSent(System.nanoTime());
+        }
+    }
+
+    /**
+     * Record successful request of the node
+     *
+     * @param node task loader node. Cannot be {@code null}
+     * @return {@code true} if the node was ejected and is returned to routing. Otherwise {@code false}
+     */
+    public boolean onSuccess(final Address node) {
+        final RouteeCircuitBreaker breaker = breakers.get(node);
+        return breaker != null && breaker.onSuccess(System.nanoTime());
+    }
+
+    /**
+     * Record failed request of the node
+     *
+     * @param node task loader node. Cannot be {@code null}
+     * @return {@code true} if the node is ejected. Otherwise {@code false}
+     */
+    public boolean onFailure(final Address node) {
+        final long now = System.nanoTime();
+        final RouteeCircuitBreaker breaker = breakers.computeIfAbsent(node, key -> breakerFactory.get());
+        if (!breaker.onFailure(now)) {
+            return false;
+        }
+        final int nodes = routees == null ? 0 : routees.size();
+        if (ejected() + 1 > Math.floor(nodes * maxEjectionShare)) {
+            return false;
+        }
+        breaker.open(now);
+        return true;
+    }
+
+    /**
+     * Retrieves amount of ejected nodes
+     *
+     * @return amount of nodes with the open circuit breaker
+     */
+    public int ejected() {
+        int count = 0;
+        for (final RouteeCircuitBreaker breaker : breakers.values()) {
+            if (breaker.isOpen()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Update routees, breakers of the nodes, that left, are dropped
+     *
+     * @param current current routees. Cannot be {@code null}
+     */
+    public void updateRoutees(final IndexedSeq<Routee> current) {
+        final Set<Address> nodes = new HashSet<>();
+        final scala.collection.Iterator<Routee> iterator = current.iterator();
+        while (iterator.hasNext()) {
+            final Address node = nodeResolver.apply(iterator.next());
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        breakers.keySet().retainAll(nodes);
+        routees = current;
+        available = null;
+    }
+
+    private IndexedSeq<Routee> availableRoutees(final IndexedSeq<Routee> current, final long nowNanos) {
+        if (current != routees) {
+            updateRoutees(current);
+        }
+        final int size = current.size();
+        if (availableMask.length != size) {
+            availableMask = new boolean[size];
+            available = null;
+        }
+        boolean changed = available == null;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final Address node = nodeResolver.apply(current.apply(i));
+            final RouteeCircuitBreaker breaker = node == null ? null : breakers.get(node);
+            final boolean nodeAvailable = breaker == null || breaker.isAvailable(nowNanos);
+            changed |= availableMask[i] != nodeAvailable;
+            availableMask[i] = nodeAvailable;
+            if (nodeAvailable) {
+                count++;
+            }
+        }
+        if (!changed) {
+            return available;
+        }
+        if (count == 0 || count == size) {
+            // none or all of the routees are ejected: none of them is better than the others
+            available = current;
+        } else {
+            final VectorBuilder<Routee> builder = new VectorBuilder<>();
+            for (int i = 0; i < size; i++) {
+                if (availableMask[i]) {
+                    builder.$plus$eq(current.apply(i));
+                }
+            }
+            available = builder.result();
+        }
+        return available;
+    }
+}
@@ -0,0 +1,45 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support;
+
+/**
+ * Budget of the extra requests (retries and hedged requests).
+ * Every original request deposits {@code ratio} of a token and every extra request withdraws a whole token,
+ * so extra load is capped at {@code ratio} of the traffic, with at most {@code reserve} extra requests in a burst.
+ * Budget is confined to a single actor, so it is not thread safe.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double reserve;
+    private double tokens;
+
+    /**
+     * RetryBudget constructor
+     *
+     * @param ratio   max share of the extra requests, e.g. {@code 0.1} for 10% of the traffic
+     * @param reserve max amount of the extra requests in a burst
+     */
+    public RetryBudget(final double ratio, final int reserve) {
+        this.ratio = ratio;
+        this.reserve = reserve;
+    }
+
+    /**
+     * Deposit original request
+     */
+    public void deposit() {
+        tokens = Math.min(reserve, tokens + ratio);
+    }
+
+    /**
+     * Withdraw extra request
+     *
+     * @return {@code true} if extra request is allowed. Otherwise {@code false}
+     */
+    public boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
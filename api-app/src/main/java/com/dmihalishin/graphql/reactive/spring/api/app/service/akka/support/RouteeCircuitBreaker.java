@@ -0,0 +1,126 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka.support;
+
+/**
+ * Circuit breaker of a single task loader node.
+ * Breaker is opened when the node fails the configured amount of requests in a row, so the node is ejected from
+ * routing. After the ejection time the breaker is half-open: a single probe request is allowed,
+ * if it succeeds the breaker is closed, otherwise it is opened again for twice the time (up to the max ejection time).
+ * Results of the requests are reported by the owner actor, so the breaker is confined to that actor
+ * and is not thread safe.
+ */
+public class RouteeCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final long maxEjectionNanos;
+    private final long probeTimeoutNanos;
+    private int failures;
+    private boolean open;
+    private long openUntilNanos;
+    private long currentEjectionNanos;
+    private boolean probing;
+    private long probeSentNanos;
+
+    /**
+     * RouteeCircuitBreaker constructor
+     *
+     * @param failureThreshold  amount of failures in a row, after which the breaker is opened. Should be positive
+     * @param ejectionNanos     time the breaker is open for, before the first probe request
+     * @param maxEjectionNanos  max time the breaker is open for, after failed probe requests
+     * @param probeTimeoutNanos time to wait for the probe result, before the next probe request is allowed
+     */
+    public RouteeCircuitBreaker(final int failureThreshold,
+                                final long ejectionNanos,
+                                final long maxEjectionNanos,
+                                final long probeTimeoutNanos) {
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = ejectionNanos;
+        this.maxEjectionNanos = maxEjectionNanos;
+        this.probeTimeoutNanos = probeTimeoutNanos;
+        this.currentEjectionNanos = ejectionNanos;
+    }
+
+    /**
+     * Check if the breaker is open, so the node is ejected
+     *
+     * @return {@code true} if the breaker is open or half-open. Otherwise {@code false}
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Check if requests could be sent to the node
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return {@code true} if the breaker is closed or the probe request is allowed. Otherwise {@code false}
+     */
+    public boolean isAvailable(final long nowNanos) {
+        return !open || isHalfOpen(nowNanos) && (!probing || nowNanos - probeSentNanos >= probeTimeoutNanos);
+    }
+
+    /**
+     * Record request sent to the node
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     */
+    public void onSent(final long nowNanos) {
+        if (open && isHalfOpen(nowNanos)) {
+            probing = true;
+            probeSentNanos = nowNanos;
+        }
+    }
+
+    /**
+     * Record successful request. Closes the half-open breaker
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return {@code true} if the breaker was closed. Otherwise {@code false}
+     */
+    public boolean onSuccess(final long nowNanos) {
+        failures = 0;
+        // late responses of the requests sent before the ejection do not close the breaker
+        if (!open || !isHalfOpen(nowNanos)) {
+            return false;
+        }
+        open = false;
+        probing = false;
+        currentEjectionNanos = ejectionNanos;
+        return true;
+    }
+
+    /**
+     * Record failed request. Opens the half-open breaker again
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return {@code true} if the closed breaker reached the failure threshold and should be opened.
+     * Otherwise {@code false}
+     */
+    public boolean onFailure(final long nowNanos) {
+        if (!open) {
+            return ++failures >= failureThreshold;
+        }
+        if (isHalfOpen(nowNanos)) {
+            currentEjectionNanos = Math.min(maxEjectionNanos, currentEjectionNanos << 1);
+            openUntilNanos = nowNanos + currentEjectionNanos;
+            probing = false;
+        }
+        return false;
+    }
+
+    /**
+     * Open the breaker, so the node is ejected for the ejection time
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     */
+    public void open(final long nowNanos) {
+        open = true;
+        probing = false;
+        failures = 0;
+        openUntilNanos = nowNanos + currentEjectionNanos;
+    }
+
+    private boolean isHalfOpen(final long nowNanos) {
+        return nowNanos - openUntilNanos >= 0;
+    }
+}
@@ -16,7 +16,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -35,7 +36,17 @@ public final class AkkaUtils {
 
     private static final String DEFAULT_CLUSTER_ROLE = "v1";
 
-    private static final String ARROW = "=>";
+    private static final int NODE_ID_SHIFT = 48;
+
+    private static final long COUNTER_MASK = (1L << NODE_ID_SHIFT) - 1;
+
+    /**
+     * Random node id, that is used to distinguish correlation ids of different nodes in the logs.
+     * Uniqueness of the actor state keys is guaranteed by the node local counter.
+     */
+    private static final long NODE_ID = ThreadLocalRandom.current().nextInt(1 << 16);
+
+    private static final AtomicLong CORRELATION_COUNTER = new AtomicLong();
 
     private static final String UNDERSCORE = "_";
 
@@ -113,41 +124,23 @@ public final class AkkaUtils {
         return false;
     }
 
-    /**
-     * Consumer Response
-     *
-     * @param response        response object. Cannot be {@code null}
-     * @param responseTraceId response trace ID. Cannot be {@code null}
-     * @param state           actor state. Can be {@code null}
-     * @param logic           logic to execute Cannot be {@code null}
-     * @param <A>             Actor state type
-     * @param <T>             Response type
-     */
-    public static <A extends ActorState, T> void consumeResponse(final T response,
-                                                                 final String responseTraceId,
-                                                                 final Map<String, A> state,
-                                                                 final BiConsumer<T, A> logic) {
-        final String stateId = AkkaUtils.getStateId(responseTraceId);
-        consumeResponseWithStateId(response, stateId, state, logic);
-    }
-
     /**
      * Consumer Response with state ID
      *
      * @param response response object. Cannot be {@code null}
-     * @param stateId  state ID. Cannot be {@code null}
-     * @param state    actor state. Can be {@code null}
+     * @param stateId  state ID
+     * @param state    actor state. Cannot be {@code null}
      * @param logic    logic to execute Cannot be {@code null}
      * @param <A>      Actor state type
      * @param <T>      Response type
      */
     public static <A extends ActorState, T> void consumeResponseWithStateId(final T response,
-                                                                            final String stateId,
-                                                                            final Map<String, A> state,
+                                                                            final long stateId,
+                                                                            final LongHashMap<A> state,
                                                                             final BiConsumer<T, A> logic) {
         final A actorState = state.get(stateId);
         if (actorState == null) {
-            log.warn("Actor State was not found for {}: {} " + response.getClass().toString(), stateId);
+            log.warn("Actor State was not found for {}: {}", toTraceId(stateId), response.getClass());
         } else {
             logic.accept(response, actorState);
             if (actorState.isDone()) {
@@ -157,31 +150,21 @@ public final class AkkaUtils {
     }
 
     /**
-     * Generate trace UUID from another trace UUID
-     *
-     * @param traceId parent trace ID. Cannot be {@code null}
-     * @return generated trace UUID
-     */
-    public static String generateTraceUUID(final String traceId) {
-        return traceId.concat(ARROW).concat(generateTraceUUID());
-    }
-
-    /**
-     * Generate trace UUID
+     * Generate correlation ID: node id in the highest 16 bits and node local counter in the lowest 48 bits.
      *
-     * @return generated trace UUID
+     * @return generated correlation ID
      */
-    public static String generateTraceUUID() {
-        return UUID.randomUUID().toString();
+    public static long nextCorrelationId() {
+        return NODE_ID << NODE_ID_SHIFT | CORRELATION_COUNTER.incrementAndGet() & COUNTER_MASK;
     }
 
     /**
-     * Retrieves state ID from the trace UUID.
+     * Retrieves textual trace ID of the correlation ID. Should be used only for logging.
      *
-     * @param traceId trace UUID. Cannot be {@code null}
-     * @return state id
+     * @param correlationId correlation ID
+     * @return trace ID in format {@code <node id>-<counter>}
      */
-    public static String getStateId(final String traceId) {
-        return traceId.substring(0, traceId.lastIndexOf(ARROW));
+    public static String toTraceId(final long correlationId) {
+        return Long.toHexString(correlationId >>> NODE_ID_SHIFT) + '-' + (correlationId & COUNTER_MASK);
     }
 }
@@ -0,0 +1,216 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.util;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed hash map with primitive {@code long} keys.
+ * Keys are not boxed and no entry objects are allocated, so it is suitable for
+ * the actor states keyed by correlation ids. Not thread safe.
+ *
+ * @param <V> value type. {@code null} values are not supported
+ */
+public final class LongHashMap<V> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    /**
+     * Create map with default capacity
+     */
+    public LongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Create map with expected amount of entries
+     *
+     * @param expectedSize expected amount of entries
+     */
+    public LongHashMap(final int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Retrieves value by key
+     *
+     * @param key key
+     * @return value or {@code null} if there is no value for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final long key) {
+        int index = index(key);
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Put value by key
+     *
+     * @param key   key
+     * @param value value. Cannot be {@code null}
+     * @return previous value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final long key, final V value) {
+        Validate.notNull(value, "value cannot be null");
+        int index = index(key);
+        Object current;
+        while ((current = values[index]) != null) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return (V) current;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove value by key
+     *
+     * @param key key
+     * @return removed value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final long key) {
+        int index = index(key);
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                values[index] = null;
+                size--;
+                compactChain(index);
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Iterate over all entries. Map must not be modified during the iteration.
+     *
+     * @param consumer entry consumer. Cannot be {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final EntryConsumer<V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            if (value != null) {
+                consumer.accept(keys[i], (V) value);
+            }
+        }
+    }
+
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Entry consumer without key boxing
+     *
+     * @param <V> value type
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Consume entry
+         *
+         * @param key   entry key
+         * @param value entry value. Cannot be {@code null}
+         */
+        void accept(long key, V value);
+    }
+
+    private int index(final long key) {
+        // fmix64 finalizer from MurmurHash3, sequential ids must be spread over the table
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    /**
+     * Shift back entries of the probe chain after removal, so lookups never need tombstones
+     */
+    private void compactChain(final int removedIndex) {
+        int free = removedIndex;
+        int index = (removedIndex + 1) & mask;
+        Object value;
+        while ((value = values[index]) != null) {
+            final int home = index(keys[index]);
+            // entry could be moved to the free slot only if the free slot is between its home and current slots
+            if (((index - home) & mask) >= ((index - free) & mask)) {
+                keys[free] = keys[index];
+                values[free] = value;
+                values[index] = null;
+                free = index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            final Object value = oldValues[i];
+            if (value != null) {
+                int index = index(oldKeys[i]);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        // load factor 0.5 keeps probe chains short
+        resizeThreshold = capacity >> 1;
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        Validate.isTrue(expectedSize >= 0, "expected size cannot be negative");
+        final int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1) << 1);
+        Validate.isTrue(capacity > 0, "expected size is too big");
+        return capacity;
+    }
+}
@@ -0,0 +1,100 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.service.akka;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.actor.Status;
+import akka.routing.RoundRobinRoutingLogic;
+import akka.testkit.javadsl.TestKit;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.DataLoaderActorConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.TaskRouterConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.exceptions.DataLoadingException;
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.DataErrorType;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
+import com.typesafe.config.ConfigFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load shedding of the {@link DataLoaderActor}.
+ * Task loader never answers, so every request stays in flight till the state TTL.
+ */
+class DataLoaderActorTest {
+
+    private ActorSystem system;
+
+    @BeforeEach
+    void setUp() {
+        system = ActorSystem.create("DataLoaderActorTest", ConfigFactory
+                .parseString("akka.actor.provider = local\nakka.loglevel = WARNING")
+                .withFallback(ConfigFactory.load()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestKit.shutdownActorSystem(system);
+    }
+
+    @Test
+    void maxInFlightIsSplitOverThePool() {
+        final DataLoaderActorConfiguration configuration = new DataLoaderActorConfiguration();
+        assertEquals(2500, configuration.getMaxInFlightPerActor());
+        configuration.setMaxInFlight(10);
+        configuration.setPoolSize(4);
+        assertEquals(3, configuration.getMaxInFlightPerActor());
+    }
+
+    @Test
+    void requestsUnderTheLimitAreNotShed() {
+        final DataLoaderActorConfiguration configuration = new DataLoaderActorConfiguration();
+        configuration.setMaxInFlight(8);
+        configuration.setPoolSize(2);
+        final ActorRef dataLoaderActor = dataLoaderActor(configuration);
+        final TestKit probe = new TestKit(system);
+        for (int id = 1; id <= configuration.getMaxInFlightPerActor(); id++) {
+            dataLoaderActor.tell(request(id), probe.getRef());
+        }
+        probe.expectNoMessage(Duration.ofMillis(300));
+
+        dataLoaderActor.tell(request(100), probe.getRef());
+        final Status.Failure failure = probe.expectMsgClass(Status.Failure.class);
+        assertTrue(failure.cause() instanceof DataLoadingException);
+        assertEquals(DataErrorType.Overloaded, ((DataLoadingException) failure.cause()).getErrorType());
+    }
+
+    private ActorRef dataLoaderActor(final DataLoaderActorConfiguration configuration) {
+        final ActorRef taskLoaderActor = system.actorOf(Props.create(SilentTaskLoader.class, SilentTaskLoader::new));
+        return system.actorOf(Props.create(DataLoaderActor.class, () -> new DataLoaderActor(taskLoaderActor,
+                new RoundRobinRoutingLogic(), configuration, new TaskRouterConfiguration(), new SimpleMeterRegistry())));
+    }
+
+    private static TaskBatchDataRequest request(final int id) {
+        return TaskBatchDataRequest.newBuilder()
+                .setCorrelationId(AkkaUtils.nextCorrelationId())
+                .addIds(id)
+                .build();
+    }
+
+    /**
+     * Task loader, that never answers
+     */
+    public static class SilentTaskLoader extends AbstractActor {
+
+        @Override
+        public Receive createReceive() {
+            return receiveBuilder()
+                    .matchAny(message -> {
+                    })
+                    .build();
+        }
+    }
+}
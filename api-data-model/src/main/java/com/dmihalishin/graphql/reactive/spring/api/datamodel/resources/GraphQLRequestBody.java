@@ -15,4 +15,5 @@ public class GraphQLRequestBody implements java.io.Serializable {
     private String query;
     private String operationName;
     private Map<String, Object> variables;
+    private Map<String, Object> extensions;
 }
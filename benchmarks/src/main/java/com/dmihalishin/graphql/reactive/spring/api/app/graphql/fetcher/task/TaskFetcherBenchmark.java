@@ -0,0 +1,57 @@
+package com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.task;
+
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResponse;
+import com.dmihalishin.graphql.reactive.spring.benchmarks.ApplicationState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link BaseTaskFetcher#getAkkaResponses(List, Set)} fan-out: a single batch request to the data loader actor
+ * and one future per requested id. Located in the fetcher package, because the method is not public.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskFetcherBenchmark {
+
+    private static final Set<String> ATTRIBUTES = Set.of("id", "name", "status");
+
+    @Param({"1", "10", "100", "1000"})
+    private int ids;
+
+    private TaskDataFetcher taskDataFetcher;
+
+    private List<Integer> request;
+
+    @Setup
+    public void setUp(final ApplicationState application) {
+        taskDataFetcher = application.getBean(TaskDataFetcher.class);
+        request = IntStream.rangeClosed(1, ids).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CompletableFuture<TaskResponse>> getAkkaResponses() {
+        final List<CompletableFuture<TaskResponse>> responses = taskDataFetcher.getAkkaResponses(request, ATTRIBUTES);
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+        return responses;
+    }
+}
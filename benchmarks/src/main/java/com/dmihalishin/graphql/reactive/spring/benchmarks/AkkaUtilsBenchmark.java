@@ -0,0 +1,68 @@
+package com.dmihalishin.graphql.reactive.spring.benchmarks;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
+import com.dmihalishin.graphql.reactive.spring.api.app.util.LongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlation ID generation, trace ID formatting (logs only) and the actor state lookup by correlation ID,
+ * as done by {@link AkkaUtils#consumeResponseWithStateId}.
+ * Correlation IDs are plain {@code long} values, so there is nothing to parse on the hot path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AkkaUtilsBenchmark {
+
+    private static final int STATES = 1024;
+
+    private final LongHashMap<Object> state = new LongHashMap<>(STATES);
+
+    private final long[] correlationIds = new long[STATES];
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < STATES; i++) {
+            correlationIds[i] = AkkaUtils.nextCorrelationId();
+            state.put(correlationIds[i], new Object());
+        }
+    }
+
+    @Benchmark
+    public long nextCorrelationId() {
+        return AkkaUtils.nextCorrelationId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextCorrelationIdContended() {
+        return AkkaUtils.nextCorrelationId();
+    }
+
+    @Benchmark
+    public String toTraceId() {
+        return AkkaUtils.toTraceId(correlationIds[next++ & (STATES - 1)]);
+    }
+
+    @Benchmark
+    public Object stateLookup() {
+        return state.get(correlationIds[next++ & (STATES - 1)]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.dmihalishin.graphql.reactive.spring.benchmarks;
+
+import akka.actor.ActorSystem;
+import akka.cluster.Cluster;
+import akka.cluster.MemberStatus;
+import com.dmihalishin.graphql.reactive.spring.api.app.Application;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole application started in the benchmark JVM: in-process actor system, that is the single member
+ * of its own cluster, and the in-memory database with {@link #TASKS} tasks.
+ * Shared by all benchmarks of the fork.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    public static final int TASKS = 1000;
+
+    private static final long CLUSTER_UP_TIMEOUT_SECONDS = 60;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws InterruptedException {
+        // system properties override application.yml and application.conf
+        System.setProperty("server.port", "0");
+        System.setProperty("akka.remote.artery.canonical.port", "0");
+        System.setProperty("akka.cluster.init.delay.seconds", "3600");
+        System.setProperty("config.task-seed.count", String.valueOf(TASKS));
+        System.setProperty("spring.main.banner-mode", "off");
+        System.setProperty("logging.level.root", "WARN");
+        System.setProperty("logging.level.akka", "WARN");
+        System.setProperty("logging.level.graphql", "WARN");
+        context = new SpringApplicationBuilder(Application.class).run();
+
+        // task router has routees only on the cluster members that are up
+        final Cluster cluster = context.getBean("akkaCluster", Cluster.class);
+        cluster.join(cluster.selfAddress());
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLUSTER_UP_TIMEOUT_SECONDS);
+        while (cluster.selfMember().status() != MemberStatus.up()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Cluster is not up in " + CLUSTER_UP_TIMEOUT_SECONDS + " seconds");
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        // router receives the member up event asynchronously
+        TimeUnit.SECONDS.sleep(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        final ActorSystem system = context.getBean(ActorSystem.class);
+        context.close();
+        system.terminate();
+    }
+
+    /**
+     * Retrieves application bean
+     *
+     * @param type bean type. Cannot be {@code null}
+     * @param <T>  bean type
+     * @return bean
+     */
+    public <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+}
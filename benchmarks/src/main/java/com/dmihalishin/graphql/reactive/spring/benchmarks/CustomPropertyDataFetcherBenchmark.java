@@ -0,0 +1,61 @@
+package com.dmihalishin.graphql.reactive.spring.benchmarks;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.fetcher.CustomPropertyDataFetcher;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.graphql.TaskResource;
+import graphql.Scalars;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field resolution with {@link CustomPropertyDataFetcher} for plain and {@link CompletableFuture} sources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomPropertyDataFetcherBenchmark {
+
+    private final CustomPropertyDataFetcher<Object> dataFetcher = new CustomPropertyDataFetcher<>("name");
+
+    private DataFetchingEnvironment plainSource;
+
+    private DataFetchingEnvironment futureSource;
+
+    @Setup
+    public void setUp() {
+        final TaskResource task = new TaskResource(1, "Test 1", null);
+        plainSource = DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .source(task)
+                .fieldType(Scalars.GraphQLString)
+                .build();
+        futureSource = DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .source(CompletableFuture.completedFuture(task))
+                .fieldType(Scalars.GraphQLString)
+                .build();
+    }
+
+    @Benchmark
+    public Object plainSource() {
+        return dataFetcher.get(plainSource);
+    }
+
+    @Benchmark
+    public Object futureSource() {
+        return ((CompletableFuture<?>) dataFetcher.get(futureSource)).join();
+    }
+}
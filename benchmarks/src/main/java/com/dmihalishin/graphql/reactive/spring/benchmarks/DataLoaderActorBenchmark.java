@@ -0,0 +1,111 @@
+package com.dmihalishin.graphql.reactive.spring.benchmarks;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import akka.routing.RoundRobinRoutingLogic;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.DataLoaderActorConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.config.akka.TaskRouterConfiguration;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.DataLoaderActor;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.Reference;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataRequest;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskEntity;
+import com.dmihalishin.graphql.reactive.spring.api.app.util.AkkaUtils;
+import com.typesafe.config.ConfigFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@code DataLoaderActor} state churn: every request creates a state and a task load,
+ * completes them with the task loader response and removes them.
+ * Task loader is replaced with an actor that answers immediately, so only the data loader side is measured.
+ * It does not answer the routees request, so task loads are sent to it directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataLoaderActorBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    @Param({"1", "10", "100"})
+    private int ids;
+
+    private ActorSystem system;
+
+    private ActorRef dataLoaderActor;
+
+    private List<Integer> request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        system = ActorSystem.create("DataLoaderActorBenchmark", ConfigFactory
+                .parseString("akka.actor.provider = local\nakka.loglevel = WARNING")
+                .withFallback(ConfigFactory.load()));
+        final ActorRef taskLoaderActor = system.actorOf(Props.create(ImmediateTaskLoader.class, ImmediateTaskLoader::new));
+        dataLoaderActor = system.actorOf(Props.create(DataLoaderActor.class, () -> new DataLoaderActor(taskLoaderActor, new RoundRobinRoutingLogic(),
+                new DataLoaderActorConfiguration(), new TaskRouterConfiguration(), new SimpleMeterRegistry())));
+        request = IntStream.rangeClosed(1, ids).boxed().collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        system.terminate();
+    }
+
+    @Benchmark
+    public Object batchRequest() {
+        return Patterns.ask(dataLoaderActor, TaskBatchDataRequest.newBuilder()
+                .setCorrelationId(AkkaUtils.nextCorrelationId())
+                .addAllIds(request)
+                .build(), TIMEOUT)
+                .toCompletableFuture()
+                .join();
+    }
+
+    /**
+     * Task loader, that answers immediately with all requested tasks
+     */
+    public static class ImmediateTaskLoader extends AbstractActor {
+
+        @Override
+        public Receive createReceive() {
+            return receiveBuilder()
+                    .match(TaskBatchDataRequest.class, request -> {
+                        final TaskBatchDataResponse.Builder response = TaskBatchDataResponse.newBuilder()
+                                .setCorrelationId(request.getCorrelationId())
+                                .setPartition(request.getPartition());
+                        request.getIdsList().forEach(id -> response.addEntities(TaskEntity.newBuilder()
+                                .setId(id)
+                                .setName("Test " + id)
+                                .setStatus(Reference.newBuilder().setCode("DONE").setDescription("Done"))));
+                        sender().tell(response.build(), self());
+                    })
+                    .build();
+        }
+    }
+}
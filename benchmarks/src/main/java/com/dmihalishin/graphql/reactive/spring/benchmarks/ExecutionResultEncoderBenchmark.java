@@ -0,0 +1,107 @@
+package com.dmihalishin.graphql.reactive.spring.benchmarks;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.codec.ExecutionResultEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of a {@code getTasks} result: streaming {@link ExecutionResultEncoder}
+ * against the Jackson encoder of the specification map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionResultEncoderBenchmark {
+
+    private static final ResolvableType RESULT_TYPE = ResolvableType.forClass(ExecutionResult.class);
+
+    private static final ResolvableType MAP_TYPE = ResolvableType.forClass(Map.class);
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Param({"1", "100", "1000"})
+    private int tasks;
+
+    private ExecutionResult result;
+
+    private ExecutionResultEncoder streamingEncoder;
+
+    private ExecutionResultEncoder specificationEncoder;
+
+    private Jackson2JsonEncoder jacksonEncoder;
+
+    @Setup
+    public void setUp() {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        streamingEncoder = new ExecutionResultEncoder(objectMapper, ExecutionResultEncoder.Mode.STREAMING, Collections.emptyMap());
+        specificationEncoder = new ExecutionResultEncoder(objectMapper, ExecutionResultEncoder.Mode.SPECIFICATION, Collections.emptyMap());
+        jacksonEncoder = new Jackson2JsonEncoder(objectMapper);
+        final List<Object> responses = new ArrayList<>(tasks);
+        for (int i = 1; i <= tasks; i++) {
+            final Map<String, Object> status = new LinkedHashMap<>();
+            status.put("code", "DONE");
+            final Map<String, Object> task = new LinkedHashMap<>();
+            task.put("id", i);
+            task.put("name", "Test " + i);
+            task.put("status", status);
+            final Map<String, Object> response = new LinkedHashMap<>();
+            response.put("key", i);
+            response.put("task", task);
+            responses.add(response);
+        }
+        result = new ExecutionResultImpl(Collections.singletonMap("getTasks", responses), Collections.emptyList());
+    }
+
+    @Benchmark
+    public int streaming() {
+        return release(streamingEncoder.encodeValue(result, bufferFactory, RESULT_TYPE, MediaType.APPLICATION_STREAM_JSON, null));
+    }
+
+    @Benchmark
+    public int specification() {
+        return release(specificationEncoder.encodeValue(result, bufferFactory, RESULT_TYPE, MediaType.APPLICATION_STREAM_JSON, null));
+    }
+
+    @Benchmark
+    public int jackson() {
+        return release(jacksonEncoder.encode(Mono.just(result.toSpecification()), bufferFactory, MAP_TYPE,
+                MediaType.APPLICATION_STREAM_JSON, null).blockFirst());
+    }
+
+    private static int release(final DataBuffer buffer) {
+        final int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+}
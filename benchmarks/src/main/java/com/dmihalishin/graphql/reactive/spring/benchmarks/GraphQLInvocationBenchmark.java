@@ -0,0 +1,56 @@
+package com.dmihalishin.graphql.reactive.spring.benchmarks;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.graphql.GraphQLInvocation;
+import com.dmihalishin.graphql.reactive.spring.api.datamodel.resources.GraphQLRequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * End-to-end GraphQL request: parsing (document cache), execution, data loader batching
+ * and the actor round-trip to the task loaders. Tasks are served from the task loader cache after warm-up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQLInvocationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int ids;
+
+    private GraphQLInvocation graphQLInvocation;
+
+    private GraphQLRequestBody requestBody;
+
+    @Setup
+    public void setUp(final ApplicationState application) {
+        graphQLInvocation = application.getBean(GraphQLInvocation.class);
+        final String idList = IntStream.rangeClosed(1, ids)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+        requestBody = new GraphQLRequestBody(
+                "{getTasks(ids:[" + idList + "]){key task{id name status{code description}}}}", null, null, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> invoke() {
+        return graphQLInvocation.invoke(requestBody, null).collectList().block();
+    }
+}
@@ -0,0 +1,88 @@
+package com.dmihalishin.graphql.reactive.spring.benchmarks;
+
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.commons.Reference;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskBatchDataResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskDataResponse;
+import com.dmihalishin.graphql.reactive.spring.api.app.service.akka.dto.task.TaskEntity;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protobuf serialization and deserialization of the task responses, as done for every remote message between nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtobufBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int entities;
+
+    private TaskDataResponse response;
+
+    private byte[] responseBytes;
+
+    private TaskBatchDataResponse batchResponse;
+
+    private byte[] batchResponseBytes;
+
+    @Setup
+    public void setUp() {
+        response = TaskDataResponse.newBuilder()
+                .setCorrelationId(1L)
+                .setEntity(entity(1))
+                .build();
+        responseBytes = response.toByteArray();
+        final TaskBatchDataResponse.Builder builder = TaskBatchDataResponse.newBuilder()
+                .setCorrelationId(1L)
+                .setPartition(1);
+        for (int i = 1; i <= entities; i++) {
+            builder.addEntities(entity(i));
+        }
+        batchResponse = builder.build();
+        batchResponseBytes = batchResponse.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return response.toByteArray();
+    }
+
+    @Benchmark
+    public TaskDataResponse deserialize() throws InvalidProtocolBufferException {
+        return TaskDataResponse.parseFrom(responseBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeBatch() {
+        return batchResponse.toByteArray();
+    }
+
+    @Benchmark
+    public TaskBatchDataResponse deserializeBatch() throws InvalidProtocolBufferException {
+        return TaskBatchDataResponse.parseFrom(batchResponseBytes);
+    }
+
+    private static TaskEntity entity(final int id) {
+        return TaskEntity.newBuilder()
+                .setId(id)
+                .setName("Test " + id)
+                .setStatus(Reference.newBuilder().setCode("DONE").setDescription("Done"))
+                .build();
+    }
+}
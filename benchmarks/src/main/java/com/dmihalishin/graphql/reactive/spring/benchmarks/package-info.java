@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks of the request path should be located in this package
+ */
+package com.dmihalishin.graphql.reactive.spring.benchmarks;